@@ -28,11 +28,15 @@ public class SecurityConfig {
         http
                 .csrf(ServerHttpSecurity.CsrfSpec::disable)
                 .authorizeExchange(exchanges -> exchanges
+                        // Bulk onboarding is for NGO/admin accounts only (must precede the open /api/auth/** rule)
+                        .pathMatchers("/api/auth/register/bulk").hasAnyRole("NGO", "ADMIN")
+
                         // Open endpoints from AuthService
                         .pathMatchers("/api/auth/**", "/.well-known/jwks.json").permitAll()
 
                         // Role-based access for UserService
                         .pathMatchers("/api/users/me/admin/**").hasRole("ADMIN")
+                        .pathMatchers("/api/users/admin/**").hasRole("ADMIN")
                         .pathMatchers("/api/users/me/ngo/**").hasRole("NGO")
                         .pathMatchers("/api/users/me/participant/**").hasRole("PARTICIPANT")
 
@@ -74,6 +78,10 @@ public class SecurityConfig {
                 .route("user-service", r -> r.path("/api/users/**")
                         .uri("lb://user-service")
                 )
+                // WasteService route
+                .route("waste-service", r -> r.path("/api/waste/**")
+                        .uri("lb://waste-service")
+                )
                 .build();
     }
 }
@@ -3,11 +3,14 @@ package com.blueforce.auth.config;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
 import com.blueforce.auth.dto.UserRegisteredEvent;
+import com.blueforce.auth.service.UserEventPublisher;
+import org.apache.kafka.clients.admin.NewTopic;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 
@@ -20,6 +23,22 @@ public class KafkaConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    // user-service runs one listener thread per partition, so this is the consumer parallelism ceiling
+    @Value("${kafka.user-registered.partitions:6}")
+    private int userRegisteredPartitions;
+
+    @Value("${kafka.user-registered.replicas:1}")
+    private short userRegisteredReplicas;
+
+    // KafkaAdmin creates the topic on startup, or adds partitions if it has fewer
+    @Bean
+    public NewTopic userRegisteredTopic() {
+        return TopicBuilder.name(UserEventPublisher.USER_REGISTERED_TOPIC)
+                .partitions(userRegisteredPartitions)
+                .replicas(userRegisteredReplicas)
+                .build();
+    }
+
     @Bean
     public ProducerFactory<String, UserRegisteredEvent> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
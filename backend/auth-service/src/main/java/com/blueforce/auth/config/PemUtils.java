@@ -1,5 +1,7 @@
 package com.blueforce.auth.config;
 
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.security.KeyFactory;
@@ -13,22 +15,42 @@ import java.util.Base64;
 public class PemUtils {
 
     public static KeyPair loadKeyPair(String privatePath, String publicPath) throws Exception {
-        // Private Key
+        return loadKeyPair(privatePath, publicPath, "RSA");
+    }
+
+    // keyAlgorithm is the JCA KeyFactory name: RSA, EC or Ed25519
+    public static KeyPair loadKeyPair(String privatePath, String publicPath, String keyAlgorithm) throws Exception {
+        KeyFactory keyFactory = KeyFactory.getInstance(keyAlgorithm);
+
+        // Private Key (PKCS#8)
         String privatePem = Files.readString(Paths.get(privatePath))
                 .replaceAll("-----\\w+ PRIVATE KEY-----", "")
                 .replaceAll("\\s", "");
         byte[] privateBytes = Base64.getDecoder().decode(privatePem);
-        PrivateKey privateKey = KeyFactory.getInstance("RSA")
-                .generatePrivate(new PKCS8EncodedKeySpec(privateBytes));
+        PrivateKey privateKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(privateBytes));
 
-        // Public Key
+        // Public Key (X.509 SubjectPublicKeyInfo)
         String publicPem = Files.readString(Paths.get(publicPath))
                 .replaceAll("-----\\w+ PUBLIC KEY-----", "")
                 .replaceAll("\\s", "");
         byte[] publicBytes = Base64.getDecoder().decode(publicPem);
-        PublicKey publicKey = KeyFactory.getInstance("RSA")
-                .generatePublic(new X509EncodedKeySpec(publicBytes));
+        PublicKey publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(publicBytes));
 
         return new KeyPair(publicKey, privateKey);
     }
+
+    public static void writeKeyPair(KeyPair keyPair, String privatePath, String publicPath) throws Exception {
+        writePem(privatePath, "PRIVATE KEY", keyPair.getPrivate().getEncoded());
+        writePem(publicPath, "PUBLIC KEY", keyPair.getPublic().getEncoded());
+    }
+
+    private static void writePem(String path, String type, byte[] der) throws Exception {
+        String pem = "-----BEGIN " + type + "-----\n" +
+                Base64.getMimeEncoder(64, new byte[]{'\n'}).encodeToString(der) +
+                "\n-----END " + type + "-----\n";
+
+        try (FileOutputStream fos = new FileOutputStream(path)) {
+            fos.write(pem.getBytes(StandardCharsets.US_ASCII));
+        }
+    }
 }
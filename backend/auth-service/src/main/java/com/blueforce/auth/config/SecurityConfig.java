@@ -1,35 +1,117 @@
 package com.blueforce.auth.config;
 
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.web.BearerTokenResolver;
+import org.springframework.security.oauth2.server.resource.web.DefaultBearerTokenResolver;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import java.util.List;
 
 @EnableMethodSecurity
 @Configuration
 public class SecurityConfig {
 
+    private static final String BULK_REGISTER = "/api/auth/register/bulk";
+
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   @Value("${management.server.port:-1}") int managementPort) throws Exception {
         http
                 .csrf(csrf -> csrf.disable())
+                .exceptionHandling(ex -> ex
+                        .authenticationEntryPoint((request, response, authException) -> {
+                            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED); // 401
+                            response.setContentType("application/json");
+                            response.getWriter().write("{\"error\": \"Unauthorized\"}");
+                        })
+                )
                 .authorizeHttpRequests(auth -> auth
+                        // ✅ checked here too, not only at the gateway: auth-service may be reachable directly
+                        .requestMatchers(BULK_REGISTER).hasAnyRole("NGO", "ADMIN")
                         .requestMatchers(
                                 "/api/auth/register",
                                 "/api/auth/login",
-                                "/.well-known/jwks.json"
+                                "/api/auth/refresh",
+                                "/.well-known/jwks.json",
+                                "/healthz" // the "public" health group, mapped onto the main port
                         ).permitAll()
+                        // actuator itself (health details, metrics, the Prometheus scrape) is only
+                        // served on the management port, which listens on loopback
+                        .requestMatchers(onManagementPort(managementPort, EndpointRequest.to("health", "metrics", "prometheus"))).permitAll()
                         .anyRequest().authenticated()
                 )
-                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .oauth2ResourceServer(oauth2 -> oauth2
+                        .bearerTokenResolver(bulkRegisterOnly())
+                        .jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthConverter()))
+                );
 
         return http.build();
     }
 
+    // Verifies our own tokens with the local public key (the one the JWKS publishes), no HTTP fetch
+    @Bean
+    public JwtDecoder jwtDecoder(RsaKeyConfig keyConfig, @Value("${jwt.issuer:blueforce-auth-service}") String issuer) {
+        JWSAlgorithm algorithm = JWSAlgorithm.parse(keyConfig.getSigningAlgorithm().name());
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(algorithm,
+                new ImmutableJWKSet<>(new JWKSet(keyConfig.getPublicJwk()))));
+        processor.setJWTClaimsSetVerifier((claims, context) -> { }); // the Spring validators below check them
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(processor);
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuer));
+        return decoder;
+    }
+
+    // Map "role" claim to ROLE_ authorities for method/URL checks
+    @Bean
+    public Converter<Jwt, AbstractAuthenticationToken> jwtAuthConverter() {
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(jwt -> {
+            String role = jwt.getClaimAsString("role");
+            if (role == null) return List.<GrantedAuthority>of();
+            if ("VOLUNTEER".equalsIgnoreCase(role)) role = "PARTICIPANT";
+            return List.<GrantedAuthority>of(new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()));
+        });
+        return converter;
+    }
+
+    // Only bulk registration reads the bearer token: a stale token sent along to login or
+    // refresh must not turn those public endpoints into 401s
+    private static BearerTokenResolver bulkRegisterOnly() {
+        DefaultBearerTokenResolver resolver = new DefaultBearerTokenResolver();
+        return request -> BULK_REGISTER.equals(request.getServletPath()) ? resolver.resolve(request) : null;
+    }
+
+    // Matches requests that arrived on management.server.port; never matches when it is unset
+    private static RequestMatcher onManagementPort(int managementPort, RequestMatcher endpoints) {
+        return request -> managementPort > 0 && request.getLocalPort() == managementPort && endpoints.matches(request);
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
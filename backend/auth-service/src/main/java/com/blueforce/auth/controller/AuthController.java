@@ -2,6 +2,8 @@ package com.blueforce.auth.controller;
 
 import com.blueforce.auth.dto.*;
 import com.blueforce.auth.service.AuthService;
+import com.blueforce.auth.service.BulkRegistrationService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -13,17 +15,32 @@ public class AuthController {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private BulkRegistrationService bulkRegistrationService;
+
     @PostMapping("/register")
     public ResponseEntity<AuthResponse> register(@RequestBody RegisterRequest request) {
         return ResponseEntity.ok(authService.register(request));
     }
 
+    // NGO/ADMIN tokens only (SecurityConfig, and again at the gateway)
+    @PostMapping("/register/bulk")
+    public ResponseEntity<BulkRegisterResponse> registerBulk(@RequestBody BulkRegisterRequest request) {
+        return ResponseEntity.ok(bulkRegistrationService.register(request));
+    }
+
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> login(@RequestBody LoginRequest request) {
-        LoginResponse response = authService.login(request);
+    public ResponseEntity<LoginResponse> login(@RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        // Remote address honours X-Forwarded-For from the gateway (server.forward-headers-strategy=native)
+        LoginResponse response = authService.login(request, httpRequest.getRemoteAddr());
         if ("Invalid credentials".equals(response.getMessage())) {
             return ResponseEntity.status(401).body(response);
         }
         return ResponseEntity.ok(response);
     }
-}
+
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponse> refresh(@RequestBody RefreshRequest request) {
+        return ResponseEntity.ok(authService.refresh(request));
+    }
+}
\ No newline at end of file
@@ -1,32 +1,86 @@
 package com.blueforce.auth.controller;
 
-import com.nimbusds.jose.jwk.RSAKey;
-import com.nimbusds.jose.jwk.KeyUse;
-import com.nimbusds.jose.JWSAlgorithm;
+import com.blueforce.auth.config.RsaKeyConfig;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.security.interfaces.RSAPublicKey;
-import java.util.Collections;
-import java.util.Map;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
 
+/**
+ * Serves the JWKS document from a pre-serialized byte array.
+ *
+ * The document and its strong ETag are built once per key set (see {@link #refresh}),
+ * responses carry Cache-Control: max-age, and conditional GETs get a bodiless 304.
+ */
 @RestController
 public class JwksController {
 
-    private final RSAPublicKey publicKey;
+    private record Snapshot(byte[] body, String etag) {}
 
-    public JwksController(com.blueforce.auth.config.RsaKeyConfig rsaKeyConfig) {
-        this.publicKey = (RSAPublicKey) rsaKeyConfig.getKeyPair().getPublic();
+    private final RsaKeyConfig keyConfig;
+    private final CacheControl cacheControl;
+
+    private volatile Snapshot snapshot;
+
+    public JwksController(RsaKeyConfig rsaKeyConfig,
+                          @Value("${auth.jwks.max-age-seconds:300}") long maxAgeSeconds) {
+        this.keyConfig = rsaKeyConfig;
+        this.cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic();
+        refresh();
     }
 
     @GetMapping("/.well-known/jwks.json")
-    public Map<String, Object> getJwks() {
-        RSAKey jwk = new RSAKey.Builder(publicKey)
-                .keyUse(KeyUse.SIGNATURE)
-                .algorithm(JWSAlgorithm.RS256)
-                .keyID("key-1")
-                .build();
-
-        return Collections.singletonMap("keys", Collections.singletonList(jwk.toJSONObject()));
+    public ResponseEntity<byte[]> getJwks(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Snapshot current = snapshot;
+        if (ifNoneMatch != null && matches(ifNoneMatch, current.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(current.etag())
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(current.etag())
+                .cacheControl(cacheControl)
+                .body(current.body());
+    }
+
+    // Rebuilds the cached document; call whenever the signing key set changes
+    public void refresh() {
+        JWK jwk = keyConfig.getPublicJwk();
+        byte[] body = new JWKSet(jwk).toString().getBytes(StandardCharsets.UTF_8);
+        this.snapshot = new Snapshot(body, etagOf(body));
+    }
+
+    private static String etagOf(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // If-None-Match may be "*" or a comma-separated list; weak validators compare equal here too
+    private static boolean matches(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals("*") || tag.equals(etag)) return true;
+        }
+        return false;
     }
 }
@@ -0,0 +1,10 @@
+package com.blueforce.auth.dto;
+
+import lombok.*;
+
+@Data @AllArgsConstructor
+public class BulkRegisterConflict {
+    private int index;     // position in the request's users list
+    private String email;
+    private String reason;
+}
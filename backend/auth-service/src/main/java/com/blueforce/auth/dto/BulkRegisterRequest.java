@@ -0,0 +1,10 @@
+package com.blueforce.auth.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data @NoArgsConstructor @AllArgsConstructor
+public class BulkRegisterRequest {
+    private List<RegisterRequest> users;  // role may be omitted; only PARTICIPANT is accepted
+}
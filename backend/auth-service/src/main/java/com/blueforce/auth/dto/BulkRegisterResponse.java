@@ -0,0 +1,11 @@
+package com.blueforce.auth.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data @AllArgsConstructor
+public class BulkRegisterResponse {
+    private List<AuthResponse> created;
+    private List<BulkRegisterConflict> conflicts;
+}
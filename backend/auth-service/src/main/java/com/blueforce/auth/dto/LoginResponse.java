@@ -6,4 +6,5 @@ import lombok.*;
 public class LoginResponse {
     private String message;
     private String token;
-}
\ No newline at end of file
+    private String refreshToken;
+}
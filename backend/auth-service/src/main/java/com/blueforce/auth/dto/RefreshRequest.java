@@ -0,0 +1,8 @@
+package com.blueforce.auth.dto;
+
+import lombok.*;
+
+@Data @NoArgsConstructor @AllArgsConstructor
+public class RefreshRequest {
+    private String refreshToken;
+}
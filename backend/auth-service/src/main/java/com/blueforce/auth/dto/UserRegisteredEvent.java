@@ -10,6 +10,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class UserRegisteredEvent {
+    private String eventId; // UUID, fixed when the event is written to the outbox
     private Long id;
     private String email;
     private String role;
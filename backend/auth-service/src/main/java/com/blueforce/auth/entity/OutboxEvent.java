@@ -0,0 +1,45 @@
+package com.blueforce.auth.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Event waiting to be published, written in the same transaction as the change it
+ * describes and drained to Kafka by OutboxRelay.
+ */
+@Entity
+@Table(name = "auth_outbox", indexes = {
+        @Index(name = "idx_outbox_unsent", columnList = "sentAt, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String topic;
+
+    private String eventKey;
+
+    @Lob
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload; // JSON
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime sentAt; // null until the relay has published it
+
+    private LocalDateTime claimedUntil; // lease of the relay currently sending it, if any
+
+    private int attempts; // sends that failed because of the event itself, not the broker
+
+    private LocalDateTime failedAt; // parked after max-attempts; the relay skips it from then on
+}
@@ -0,0 +1,45 @@
+package com.blueforce.auth.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "auth_refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_family", columnList = "familyId")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // SHA-256 of the opaque token, hex encoded; the raw token is never stored
+    @Column(nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    // All tokens rotated from the same login share a family; reuse revokes the family
+    @Column(nullable = false, length = 36)
+    private String familyId;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Builder.Default
+    private boolean used = false;     // already rotated
+
+    @Builder.Default
+    private boolean revoked = false;  // family revoked after reuse
+
+    @Builder.Default
+    @Column(updatable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
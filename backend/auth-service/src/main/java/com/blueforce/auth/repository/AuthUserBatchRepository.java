@@ -0,0 +1,89 @@
+package com.blueforce.auth.repository;
+
+import com.blueforce.auth.entity.AuthUser;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Plain JDBC batch inserts for auth_users.
+ *
+ * Hibernate disables insert batching for IDENTITY ids, and switching AuthUser to a
+ * table/sequence generator would collide with the auto-increment values already in
+ * the table. Instead the batch goes straight through JDBC: with
+ * rewriteBatchedStatements=true Connector/J sends it as multi-row INSERTs and still
+ * returns every generated id.
+ */
+@Repository
+public class AuthUserBatchRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO auth_users (email, password_hash, role, provider, verified, created_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AuthUserBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Inserts all rows in one JDBC batch and writes the generated ids back onto the entities
+    public void insertAll(List<AuthUser> users) {
+        if (users.isEmpty()) return;
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        bind(ps, users.get(i));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return users.size();
+                    }
+                },
+                keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < users.size(); i++) {
+            users.get(i).setId(((Number) keys.get(i).values().iterator().next()).longValue());
+        }
+    }
+
+    /**
+     * Streams every email through a forward-only cursor. With Connector/J a fetch size of
+     * Integer.MIN_VALUE makes the driver stream row by row instead of buffering the table.
+     */
+    public void forEachEmail(int fetchSize, Consumer<String> consumer) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement("SELECT email FROM auth_users",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            return ps;
+        }, (ResultSet rs) -> consumer.accept(rs.getString(1)));
+    }
+
+    private static void bind(PreparedStatement ps, AuthUser user) throws SQLException {
+        ps.setString(1, user.getEmail());
+        ps.setString(2, user.getPasswordHash());
+        ps.setString(3, user.getRole());
+        ps.setString(4, user.getProvider().name());
+        ps.setBoolean(5, user.isVerified());
+        ps.setTimestamp(6, Timestamp.valueOf(user.getCreatedAt()));
+    }
+}
@@ -2,12 +2,19 @@ package com.blueforce.auth.repository;
 
 import com.blueforce.auth.entity.AuthUser;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
 public interface AuthUserRepository extends JpaRepository<AuthUser, Long> {
 
     boolean existsByEmail(String email);
 
     Optional<AuthUser> findByEmail(String email);
+
+    @Query("SELECT a.email FROM AuthUser a WHERE a.email IN :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.blueforce.auth.repository;
+
+import com.blueforce.auth.entity.OutboxEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+// JDBC batch insert for auth_outbox (see AuthUserBatchRepository for why not JPA)
+@Repository
+public class OutboxBatchRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO auth_outbox (topic, event_key, payload, created_at)
+            VALUES (?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OutboxBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insertAll(List<OutboxEvent> events) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (ps, event) -> {
+            ps.setString(1, event.getTopic());
+            ps.setString(2, event.getEventKey());
+            ps.setString(3, event.getPayload());
+            ps.setTimestamp(4, Timestamp.valueOf(event.getCreatedAt()));
+        });
+    }
+}
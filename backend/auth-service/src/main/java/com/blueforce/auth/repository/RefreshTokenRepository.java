@@ -0,0 +1,38 @@
+package com.blueforce.auth.repository;
+
+import com.blueforce.auth.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    @Query("""
+           SELECT t FROM RefreshToken t
+           WHERE t.used = false AND t.revoked = false AND t.expiresAt > :now
+           """)
+    Stream<RefreshToken> streamActive(@Param("now") LocalDateTime now);
+
+    // Conditional update: only one caller can ever rotate a given token
+    @Modifying
+    @Query("""
+           UPDATE RefreshToken t SET t.used = true
+           WHERE t.id = :id AND t.used = false AND t.revoked = false
+           """)
+    int markUsed(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revoked = true WHERE t.familyId = :familyId")
+    int revokeFamily(@Param("familyId") String familyId);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.expiresAt < :cutoff")
+    int deleteExpiredBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -4,95 +4,112 @@ import com.blueforce.auth.dto.*;
 import com.blueforce.auth.entity.*;
 import com.blueforce.auth.repository.AuthUserRepository;
 import com.blueforce.auth.util.JwtUtil;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.SendResult;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.util.concurrent.CompletableFuture;
-
 @Service
 public class AuthService {
 
-    private static final Logger logger = LoggerFactory.getLogger(AuthService.class);
-
     @Autowired
     private AuthUserRepository authUserRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
 
     @Autowired
     private JwtUtil jwtUtil;
 
     @Autowired
-    private KafkaTemplate<String, UserRegisteredEvent> kafkaTemplate;
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private UserEventPublisher userEventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private LoginThrottle loginThrottle;
+
+    @Autowired
+    private AuthMetrics metrics;
+
+    @Autowired
+    private RegisteredEmailFilter registeredEmailFilter;
 
     // ✅ Register
     public AuthResponse register(RegisterRequest request) {
 
-        if (authUserRepository.existsByEmail(request.getEmail())) {
+        // A definite "no" from the Bloom filter skips the existence query; the unique
+        // constraint below still catches anything the filter lets through
+        if (registeredEmailFilter.mightBeRegistered(request.getEmail())
+                && metrics.record(AuthMetrics.REGISTER, "exists_check", () -> authUserRepository.existsByEmail(request.getEmail()))) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Email already registered");
         }
 
+        String passwordHash = metrics.record(AuthMetrics.REGISTER, "password_encode",
+                () -> passwordHasher.encode(request.getPassword()));
+
         AuthUser authUser = AuthUser.builder()
                 .email(request.getEmail())
-                .passwordHash(passwordEncoder.encode(request.getPassword()))
+                .passwordHash(passwordHash)
                 .role(request.getRole())
                 .provider(AuthProviderType.LOCAL)
                 .verified(false)
                 .build();
 
-        AuthUser saved = authUserRepository.save(authUser);
-
-        // Publish event to Kafka
-        publishUserRegisteredEvent(saved);
+        // User row and outbox event commit together; OutboxRelay publishes to Kafka.
+        // bcrypt stays outside the transaction so it never holds a DB connection.
+        AuthUser saved;
+        try {
+            saved = metrics.record(AuthMetrics.REGISTER, "save", () -> transactionTemplate.execute(status -> {
+                AuthUser user = authUserRepository.save(authUser);
+                userEventPublisher.publishUserRegistered(user);
+                return user;
+            }));
+        } catch (DataIntegrityViolationException e) {
+            // Only a lost race on the unique email is a conflict; any other violation (the
+            // outbox row, column sizes) is a server error and must not be reported as one
+            if (!authUserRepository.existsByEmail(request.getEmail())) throw e;
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Email already registered");
+        }
+        registeredEmailFilter.add(saved.getEmail());
 
         return new AuthResponse(saved.getId(), saved.getEmail(), saved.getRole(), saved.isVerified());
     }
 
     // ✅ Login
-    public LoginResponse login(LoginRequest request) {
-        AuthUser user = authUserRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new ResponseStatusException(
-                        HttpStatus.UNAUTHORIZED, "Invalid email or password"));
+    public LoginResponse login(LoginRequest request, String clientAddress) {
+        // Reject floods before they reach the DB or bcrypt
+        loginThrottle.checkAllowed(request.getEmail(), clientAddress);
+
+        AuthUser user = metrics.record(AuthMetrics.LOGIN, "lookup",
+                () -> authUserRepository.findByEmail(request.getEmail()).orElse(null));
+        if (user == null) {
+            loginThrottle.recordFailure(request.getEmail());
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid email or password");
+        }
 
-        boolean passwordMatch = passwordEncoder.matches(request.getPassword(), user.getPasswordHash());
+        boolean passwordMatch = metrics.record(AuthMetrics.LOGIN, "password_verify",
+                () -> passwordHasher.matches(request.getPassword(), user.getPasswordHash()));
         if (!passwordMatch) {
+            loginThrottle.recordFailure(request.getEmail());
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid email or password");
         }
 
-        String token = jwtUtil.generateToken(user.getEmail(), user.getRole());
-        return new LoginResponse("Login successful", token);
+        String token = metrics.record(AuthMetrics.LOGIN, "token_sign",
+                () -> jwtUtil.generateToken(user.getId(), user.getEmail(), user.getRole()));
+        String refreshToken = metrics.record(AuthMetrics.LOGIN, "refresh_token_save",
+                () -> refreshTokenService.issue(user));
+        return new LoginResponse("Login successful", token, refreshToken);
     }
 
-    private void publishUserRegisteredEvent(AuthUser authUser) {
-        try {
-            UserRegisteredEvent event = UserRegisteredEvent.builder()
-                    .id(authUser.getId())
-                    .email(authUser.getEmail())
-                    .role(authUser.getRole())
-                    .verified(authUser.isVerified())
-                    .provider(authUser.getProvider().name())
-                    .build();
-
-            CompletableFuture<SendResult<String, UserRegisteredEvent>> future = kafkaTemplate.send("user-registered", event);
-            
-            future.whenComplete((result, ex) -> {
-                if (ex == null) {
-                    logger.info("Successfully sent user registration event for user: {} with offset: {}", 
-                            authUser.getEmail(), result.getRecordMetadata().offset());
-                } else {
-                    logger.error("Failed to send user registration event for user: {}", authUser.getEmail(), ex);
-                }
-            });
-        } catch (Exception e) {
-            logger.error("Error publishing user registration event for user: {}", authUser.getEmail(), e);
-        }
+    // ✅ Refresh (no password, no bcrypt)
+    public LoginResponse refresh(RefreshRequest request) {
+        return metrics.record(AuthMetrics.REFRESH, "rotate", () -> refreshTokenService.rotate(request.getRefreshToken()));
     }
 }
@@ -0,0 +1,169 @@
+package com.blueforce.auth.service;
+
+import com.blueforce.auth.dto.*;
+import com.blueforce.auth.entity.AuthProviderType;
+import com.blueforce.auth.entity.AuthUser;
+import com.blueforce.auth.repository.AuthUserBatchRepository;
+import com.blueforce.auth.repository.AuthUserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Registers many participants in one request (NGO onboarding drives).
+ *
+ * Rows are validated and checked for existing emails up front, passwords are hashed in
+ * parallel on the hashing pool, and auth_users rows go in as JDBC batches together with
+ * their outbox events. Problems are reported per row instead of failing the whole request.
+ */
+@Service
+public class BulkRegistrationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkRegistrationService.class);
+
+    private static final String PARTICIPANT = "PARTICIPANT";
+
+    private final AuthUserRepository authUserRepository;
+    private final AuthUserBatchRepository authUserBatchRepository;
+    private final PasswordHasher passwordHasher;
+    private final UserEventPublisher userEventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final RegisteredEmailFilter registeredEmailFilter;
+    private final int maxSize;
+    private final int batchSize;
+
+    public BulkRegistrationService(AuthUserRepository authUserRepository,
+                                   AuthUserBatchRepository authUserBatchRepository,
+                                   PasswordHasher passwordHasher,
+                                   UserEventPublisher userEventPublisher,
+                                   TransactionTemplate transactionTemplate,
+                                   RegisteredEmailFilter registeredEmailFilter,
+                                   @Value("${auth.bulk-register.max-size:1000}") int maxSize,
+                                   @Value("${auth.bulk-register.batch-size:200}") int batchSize) {
+        this.authUserRepository = authUserRepository;
+        this.authUserBatchRepository = authUserBatchRepository;
+        this.passwordHasher = passwordHasher;
+        this.userEventPublisher = userEventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.registeredEmailFilter = registeredEmailFilter;
+        this.maxSize = maxSize;
+        this.batchSize = batchSize;
+    }
+
+    public BulkRegisterResponse register(BulkRegisterRequest request) {
+        List<RegisterRequest> rows = request.getUsers() == null ? List.of() : request.getUsers();
+        if (rows.size() > maxSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + maxSize + " users can be registered per request");
+        }
+
+        List<BulkRegisterConflict> conflicts = new ArrayList<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+
+        Set<String> existing = findExisting(rows);
+        for (int i = 0; i < rows.size(); i++) {
+            RegisterRequest row = rows.get(i);
+            String email = row.getEmail();
+            if (email == null || email.isBlank() || row.getPassword() == null || row.getPassword().isEmpty()) {
+                conflicts.add(new BulkRegisterConflict(i, email, "Email and password are required"));
+            } else if (row.getRole() != null && !PARTICIPANT.equalsIgnoreCase(row.getRole())) {
+                conflicts.add(new BulkRegisterConflict(i, email, "Only PARTICIPANT accounts can be bulk registered"));
+            } else if (!seen.add(normalize(email))) {
+                conflicts.add(new BulkRegisterConflict(i, email, "Duplicate email in request"));
+            } else if (existing.contains(normalize(email))) {
+                conflicts.add(new BulkRegisterConflict(i, email, "Email already registered"));
+            } else {
+                acceptedIndexes.add(i);
+            }
+        }
+
+        List<String> passwordHashes = passwordHasher.encodeAll(
+                acceptedIndexes.stream().map(i -> rows.get(i).getPassword()).toList());
+
+        List<AuthUser> created = new ArrayList<>(acceptedIndexes.size());
+        for (int from = 0; from < acceptedIndexes.size(); from += batchSize) {
+            int to = Math.min(from + batchSize, acceptedIndexes.size());
+            List<AuthUser> chunk = new ArrayList<>(to - from);
+            for (int k = from; k < to; k++) {
+                chunk.add(newParticipant(rows.get(acceptedIndexes.get(k)).getEmail(), passwordHashes.get(k)));
+            }
+            insertChunk(chunk, acceptedIndexes.subList(from, to), created, conflicts);
+        }
+
+        conflicts.sort(Comparator.comparingInt(BulkRegisterConflict::getIndex));
+        logger.info("Bulk registration: {} created, {} rejected", created.size(), conflicts.size());
+        return new BulkRegisterResponse(
+                created.stream()
+                        .map(u -> new AuthResponse(u.getId(), u.getEmail(), u.getRole(), u.isVerified()))
+                        .toList(),
+                conflicts);
+    }
+
+    private void insertChunk(List<AuthUser> chunk, List<Integer> indexes,
+                             List<AuthUser> created, List<BulkRegisterConflict> conflicts) {
+        try {
+            // one transaction per chunk so a late duplicate rolls the whole chunk back
+            transactionTemplate.executeWithoutResult(status -> {
+                authUserBatchRepository.insertAll(chunk);
+                userEventPublisher.publishUserRegistered(chunk);
+            });
+            created.addAll(chunk);
+            chunk.forEach(u -> registeredEmailFilter.add(u.getEmail()));
+        } catch (DuplicateKeyException e) {
+            // Someone registered one of these emails since the pre-check: retry row by row
+            for (int k = 0; k < chunk.size(); k++) {
+                AuthUser user = chunk.get(k);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        authUserBatchRepository.insertAll(List.of(user));
+                        userEventPublisher.publishUserRegistered(List.of(user));
+                    });
+                    created.add(user);
+                    registeredEmailFilter.add(user.getEmail());
+                } catch (DuplicateKeyException dup) {
+                    conflicts.add(new BulkRegisterConflict(indexes.get(k), user.getEmail(), "Email already registered"));
+                }
+            }
+        }
+    }
+
+    private Set<String> findExisting(List<RegisterRequest> rows) {
+        // only emails the Bloom filter cannot rule out need to go to the DB
+        List<String> emails = rows.stream()
+                .map(RegisterRequest::getEmail)
+                .filter(e -> e != null && !e.isBlank())
+                .filter(registeredEmailFilter::mightBeRegistered)
+                .toList();
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < emails.size(); from += batchSize) {
+            authUserRepository.findExistingEmails(emails.subList(from, Math.min(from + batchSize, emails.size())))
+                    .forEach(e -> existing.add(normalize(e)));
+        }
+        return existing;
+    }
+
+    private static AuthUser newParticipant(String email, String passwordHash) {
+        return AuthUser.builder()
+                .email(email)
+                .passwordHash(passwordHash)
+                .role(PARTICIPANT)
+                .provider(AuthProviderType.LOCAL)
+                .verified(false)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    // MySQL's default collation compares emails case-insensitively
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,76 @@
+package com.blueforce.auth.service;
+
+import com.blueforce.auth.exception.TooManyRequestsException;
+import com.blueforce.auth.util.SlidingWindowCounter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * In-process login throttle, checked before the user lookup and bcrypt.
+ *
+ * Counts every attempt per client address and every failed attempt per account email
+ * in {@link SlidingWindowCounter}s, and rejects with 429 once either exceeds its limit.
+ * Per-account limits only count failures, so a user who logs in correctly is never
+ * blocked by their own successful sessions.
+ */
+@Component
+public class LoginThrottle {
+
+    private final SlidingWindowCounter attemptsByAddress;
+    private final SlidingWindowCounter failuresByEmail;
+    private final int maxAttemptsPerAddress;
+    private final int maxFailuresPerEmail;
+    private final long retryAfterSeconds;
+
+    private final Counter throttledByAddress;
+    private final Counter throttledByEmail;
+
+    public LoginThrottle(MeterRegistry meterRegistry,
+                         @Value("${auth.login-throttle.window-seconds:60}") long windowSeconds,
+                         @Value("${auth.login-throttle.max-attempts-per-address:30}") int maxAttemptsPerAddress,
+                         @Value("${auth.login-throttle.max-failures-per-email:10}") int maxFailuresPerEmail,
+                         @Value("${auth.login-throttle.cells:65536}") int cells) {
+        long windowMillis = windowSeconds * 1000;
+        this.attemptsByAddress = new SlidingWindowCounter(cells, 2, windowMillis);
+        this.failuresByEmail = new SlidingWindowCounter(cells, 2, windowMillis);
+        this.maxAttemptsPerAddress = maxAttemptsPerAddress;
+        this.maxFailuresPerEmail = maxFailuresPerEmail;
+        this.retryAfterSeconds = windowSeconds;
+
+        this.throttledByAddress = Counter.builder("auth.login.throttled")
+                .tag("key", "address")
+                .description("Login attempts rejected by the throttle")
+                .register(meterRegistry);
+        this.throttledByEmail = Counter.builder("auth.login.throttled")
+                .tag("key", "email")
+                .description("Login attempts rejected by the throttle")
+                .register(meterRegistry);
+    }
+
+    // Counts the attempt against the client address and rejects if either limit is exceeded
+    public void checkAllowed(String email, String clientAddress) {
+        long now = System.currentTimeMillis();
+        if (clientAddress != null && attemptsByAddress.increment(clientAddress, now) > maxAttemptsPerAddress) {
+            throttledByAddress.increment();
+            throw new TooManyRequestsException("Too many login attempts, please try again later", retryAfterSeconds);
+        }
+        if (email != null && failuresByEmail.count(normalize(email), now) >= maxFailuresPerEmail) {
+            throttledByEmail.increment();
+            throw new TooManyRequestsException("Too many login attempts, please try again later", retryAfterSeconds);
+        }
+    }
+
+    public void recordFailure(String email) {
+        if (email != null) {
+            failuresByEmail.increment(normalize(email), System.currentTimeMillis());
+        }
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
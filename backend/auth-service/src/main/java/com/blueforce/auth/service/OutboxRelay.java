@@ -0,0 +1,226 @@
+package com.blueforce.auth.service;
+
+import com.blueforce.auth.dto.UserRegisteredEvent;
+import com.blueforce.auth.entity.OutboxEvent;
+import com.blueforce.auth.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.common.errors.RetriableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains auth_outbox to Kafka in id order.
+ *
+ * Every linger-ms the relay claims up to batch-size unsent rows in a short transaction
+ * (SKIP LOCKED, then a lease in claimed_until), hands them all to the producer with no
+ * transaction or connection held, waits for the acks and marks the acknowledged prefix as
+ * sent in a second short transaction. Anything after the first failure is released and
+ * retried on the next pass; rows of a relay that died mid-send come back when the lease
+ * runs out. Delivery is at-least-once and register latency no longer depends on the broker.
+ *
+ * A broker outage (timeouts and other retriable Kafka errors) is simply waited out. Any
+ * other failure is the event's own (a payload that no longer parses, a record the broker
+ * rejects) and counts against max-attempts; at the limit the row is parked (failed_at set)
+ * so the events behind it can go. Parked rows are kept; clearing failed_at and attempts
+ * replays one.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, UserRegisteredEvent> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final AuthMetrics metrics;
+    private final int batchSize;
+    private final long sendTimeoutMs;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration retention;
+
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Counter parkedCounter;
+    private final DistributionSummary batchSizeSummary;
+    private final Timer batchTimer;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaTemplate<String, UserRegisteredEvent> kafkaTemplate,
+                       ObjectMapper objectMapper,
+                       TransactionTemplate transactionTemplate,
+                       AuthMetrics metrics,
+                       MeterRegistry meterRegistry,
+                       @Value("${auth.outbox.batch-size:500}") int batchSize,
+                       @Value("${auth.outbox.send-timeout-ms:10000}") long sendTimeoutMs,
+                       @Value("${auth.outbox.max-attempts:5}") int maxAttempts,
+                       @Value("${auth.outbox.lease-ms:300000}") long leaseMs,
+                       @Value("${auth.outbox.retention-hours:24}") long retentionHours) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.metrics = metrics;
+        this.batchSize = batchSize;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.maxAttempts = maxAttempts;
+        this.lease = Duration.ofMillis(leaseMs);
+        this.retention = Duration.ofHours(retentionHours);
+
+        Gauge.builder("auth.outbox.lag", lagMillis, AtomicLong::get)
+                .description("Age of the oldest unsent outbox event at the last relay pass")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        this.sentCounter = Counter.builder("auth.outbox.sent").register(meterRegistry);
+        this.failedCounter = Counter.builder("auth.outbox.failed").register(meterRegistry);
+        this.parkedCounter = Counter.builder("auth.outbox.parked")
+                .description("Events given up on after max-attempts failures of their own")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("auth.outbox.batch.size").register(meterRegistry);
+        this.batchTimer = Timer.builder("auth.outbox.batch.duration").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.outbox.linger-ms:100}")
+    public void drain() {
+        try {
+            // keep going while batches come back full, then wait for the next tick
+            while (relayBatch() == batchSize) {
+                // next batch
+            }
+        } catch (Exception e) {
+            logger.error("Outbox relay pass failed", e);
+        }
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> batch = claimBatch();
+        if (batch.isEmpty()) {
+            lagMillis.set(0);
+            return 0;
+        }
+        lagMillis.set(Duration.between(batch.get(0).getCreatedAt(), LocalDateTime.now()).toMillis());
+        batchSizeSummary.record(batch.size());
+        return batchTimer.record(() -> publish(batch));
+    }
+
+    // Locks the next unclaimed rows, leases them to this relay and commits right away
+    private List<OutboxEvent> claimBatch() {
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEvent> rows = outboxEventRepository.lockNextBatch(now, batchSize);
+            if (!rows.isEmpty()) {
+                outboxEventRepository.claim(ids(rows), now.plus(lease));
+            }
+            return rows;
+        });
+        return batch == null ? List.of() : batch;
+    }
+
+    // Returns how many events were marked sent; a short count ends the drain loop
+    private int publish(List<OutboxEvent> batch) {
+        // ✅ no transaction here: a broker outage must not hold row locks or a pooled connection
+        Sent sent = metrics.record(AuthMetrics.OUTBOX_RELAY, "kafka_send", () -> send(batch));
+        List<Long> sentIds = sent.ids();
+        if (!sentIds.isEmpty()) {
+            metrics.record(AuthMetrics.OUTBOX_RELAY, "mark_sent", () -> transactionTemplate.execute(
+                    status -> outboxEventRepository.markSent(sentIds, LocalDateTime.now())));
+            sentCounter.increment(sentIds.size());
+        }
+        int next = sentIds.size();
+        if (sent.failure() != null && !retriable(sent.failure())) {
+            OutboxEvent failed = batch.get(next++);
+            transactionTemplate.execute(status ->
+                    outboxEventRepository.recordFailure(failed.getId(), maxAttempts, LocalDateTime.now()));
+            if (failed.getAttempts() + 1 >= maxAttempts) {
+                parkedCounter.increment();
+                logger.error("Parked outbox event {} after {} failed attempts", failed.getId(), maxAttempts);
+            }
+        }
+        if (next < batch.size()) {
+            // hand the unsent tail back now rather than when the lease runs out
+            List<Long> unsent = ids(batch.subList(next, batch.size()));
+            transactionTemplate.execute(status -> outboxEventRepository.release(unsent));
+        }
+        return sentIds.size();
+    }
+
+    // Ids of the acknowledged prefix, and why the event after it failed (null if none did)
+    private record Sent(List<Long> ids, Throwable failure) {}
+
+    // Sends the batch and stops at the first event that was not acknowledged
+    private Sent send(List<OutboxEvent> batch) {
+        List<CompletableFuture<SendResult<String, UserRegisteredEvent>>> futures = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            try {
+                UserRegisteredEvent payload = objectMapper.readValue(event.getPayload(), UserRegisteredEvent.class);
+                futures.add(kafkaTemplate.send(event.getTopic(), event.getEventKey(), payload));
+            } catch (Exception e) {
+                futures.add(CompletableFuture.failedFuture(e));
+            }
+        }
+        kafkaTemplate.flush();
+
+        List<Long> sentIds = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                futures.get(i).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+                sentIds.add(batch.get(i).getId());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                // keep id order: stop at the first failure, the rest is retried next pass
+                failedCounter.increment();
+                logger.error("Failed to publish outbox event {} to {}", batch.get(i).getId(), batch.get(i).getTopic(), e);
+                return new Sent(sentIds, e);
+            }
+        }
+        return new Sent(sentIds, null);
+    }
+
+    // Broker or network trouble that a later pass can get past, as opposed to a bad event
+    private static boolean retriable(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RetriableException || cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Long> ids(List<OutboxEvent> events) {
+        return events.stream().map(OutboxEvent::getId).toList();
+    }
+
+    @Scheduled(cron = "${auth.outbox.purge-cron:0 */15 * * * *}")
+    public void purgeSent() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int deleted;
+        do {
+            Integer count = transactionTemplate.execute(status -> outboxEventRepository.deleteSentBefore(cutoff, 1000));
+            deleted = count == null ? 0 : count;
+        } while (deleted == 1000);
+    }
+}
@@ -0,0 +1,229 @@
+package com.blueforce.auth.service;
+
+import com.blueforce.auth.dto.LoginResponse;
+import com.blueforce.auth.entity.AuthUser;
+import com.blueforce.auth.entity.RefreshToken;
+import com.blueforce.auth.repository.AuthUserRepository;
+import com.blueforce.auth.repository.RefreshTokenRepository;
+import com.blueforce.auth.util.JwtUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Issues and rotates opaque refresh tokens so clients can renew their access token
+ * without re-sending the password (and without another bcrypt verify).
+ *
+ * Tokens are stored as SHA-256 hashes in auth_refresh_tokens. Active tokens are also
+ * kept in an in-memory index keyed by hash, so a refresh normally costs the
+ * conditional "mark used" update, one primary-key user lookup and one signature.
+ * Presenting a token that was already rotated revokes its whole family.
+ *
+ * The index only ever changes after the transaction that changed the table commits, so a
+ * rollback cannot leave it holding tokens that were never stored or missing ones that are
+ * still active. A second index by family makes revoking a family independent of how many
+ * tokens are active.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final AuthUserRepository authUserRepository;
+    private final JwtUtil jwtUtil;
+    private final Duration ttl;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    // tokenHash -> active token; a miss falls back to the table (other replica, restart)
+    private final Map<String, IndexEntry> activeIndex = new ConcurrentHashMap<>();
+    // familyId -> hashes of its active tokens (normally one: the latest rotation)
+    private final Map<String, Set<String>> familyIndex = new ConcurrentHashMap<>();
+
+    private record IndexEntry(Long id, Long userId, String familyId, LocalDateTime expiresAt) {
+        static IndexEntry of(RefreshToken token) {
+            return new IndexEntry(token.getId(), token.getUserId(), token.getFamilyId(), token.getExpiresAt());
+        }
+    }
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               AuthUserRepository authUserRepository,
+                               JwtUtil jwtUtil,
+                               @Value("${auth.refresh-token.ttl-days:30}") long ttlDays) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.authUserRepository = authUserRepository;
+        this.jwtUtil = jwtUtil;
+        this.ttl = Duration.ofDays(ttlDays);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmIndex() {
+        try (Stream<RefreshToken> active = refreshTokenRepository.streamActive(LocalDateTime.now())) {
+            active.forEach(token -> index(token.getTokenHash(), IndexEntry.of(token)));
+        }
+        logger.info("Loaded {} active refresh tokens into the index", activeIndex.size());
+    }
+
+    // Starts a new token family (one per login)
+    @Transactional
+    public String issue(AuthUser user) {
+        return issue(user.getId(), UUID.randomUUID().toString());
+    }
+
+    // Exchanges a refresh token for a new access token + refresh token in the same family
+    @Transactional(noRollbackFor = ResponseStatusException.class)
+    public LoginResponse rotate(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            throw invalidToken();
+        }
+        String tokenHash = hash(rawToken);
+
+        IndexEntry entry = activeIndex.get(tokenHash);
+        if (entry == null) {
+            RefreshToken stored = refreshTokenRepository.findByTokenHash(tokenHash)
+                    .orElseThrow(RefreshTokenService::invalidToken);
+            if (stored.isUsed() || stored.isRevoked()) {
+                revokeFamily(stored.getFamilyId());
+                throw invalidToken();
+            }
+            entry = IndexEntry.of(stored);
+        }
+
+        if (entry.expiresAt().isBefore(LocalDateTime.now())) {
+            afterCommit(() -> unindex(tokenHash));
+            throw invalidToken();
+        }
+
+        // Lost the race (or the token was rotated on another replica): treat as reuse
+        if (refreshTokenRepository.markUsed(entry.id()) == 0) {
+            revokeFamily(entry.familyId());
+            throw invalidToken();
+        }
+
+        afterCommit(() -> unindex(tokenHash));
+
+        AuthUser user = authUserRepository.findById(entry.userId())
+                .orElseThrow(RefreshTokenService::invalidToken);
+
+        String accessToken = jwtUtil.generateToken(user.getId(), user.getEmail(), user.getRole());
+        String refreshToken = issue(user.getId(), entry.familyId());
+        return new LoginResponse("Token refreshed", accessToken, refreshToken);
+    }
+
+    @Scheduled(cron = "${auth.refresh-token.purge-cron:0 0 * * * *}")
+    @Transactional
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int deleted = refreshTokenRepository.deleteExpiredBefore(now);
+        afterCommit(() -> activeIndex.forEach((tokenHash, entry) -> {
+            if (entry.expiresAt().isBefore(now)) unindex(tokenHash);
+        }));
+        if (deleted > 0) {
+            logger.info("Purged {} expired refresh tokens", deleted);
+        }
+    }
+
+    private String issue(Long userId, String familyId) {
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        String rawToken = BASE64_URL.encodeToString(bytes);
+
+        RefreshToken token = RefreshToken.builder()
+                .tokenHash(hash(rawToken))
+                .userId(userId)
+                .familyId(familyId)
+                .expiresAt(LocalDateTime.now().plus(ttl))
+                .used(false)
+                .revoked(false)
+                .createdAt(LocalDateTime.now())
+                .build();
+
+        RefreshToken saved = refreshTokenRepository.save(token);
+        IndexEntry entry = IndexEntry.of(saved);
+        afterCommit(() -> index(saved.getTokenHash(), entry));
+        return rawToken;
+    }
+
+    private void revokeFamily(String familyId) {
+        logger.warn("Refresh token reuse detected, revoking token family {}", familyId);
+        refreshTokenRepository.revokeFamily(familyId);
+        afterCommit(() -> unindexFamily(familyId));
+    }
+
+    private void index(String tokenHash, IndexEntry entry) {
+        familyIndex.compute(entry.familyId(), (familyId, hashes) -> {
+            if (hashes == null) hashes = ConcurrentHashMap.newKeySet();
+            hashes.add(tokenHash);
+            return hashes;
+        });
+        activeIndex.put(tokenHash, entry);
+    }
+
+    private void unindex(String tokenHash) {
+        IndexEntry entry = activeIndex.remove(tokenHash);
+        if (entry == null) return;
+        familyIndex.computeIfPresent(entry.familyId(), (familyId, hashes) -> {
+            hashes.remove(tokenHash);
+            return hashes.isEmpty() ? null : hashes;
+        });
+    }
+
+    private void unindexFamily(String familyId) {
+        Set<String> hashes = familyIndex.remove(familyId);
+        if (hashes != null) hashes.forEach(activeIndex::remove);
+    }
+
+    // Index changes wait for the table change to commit; a rollback simply drops them
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static ResponseStatusException invalidToken() {
+        return new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token");
+    }
+}
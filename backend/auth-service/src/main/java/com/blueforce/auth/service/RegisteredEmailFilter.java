@@ -0,0 +1,95 @@
+package com.blueforce.auth.service;
+
+import com.blueforce.auth.repository.AuthUserBatchRepository;
+import com.blueforce.auth.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Bloom filter of registered emails, used to skip the existsByEmail round trip when an
+ * email is definitely new. A "maybe" still goes to the DB, and the unique constraint on
+ * auth_users.email stays the final authority.
+ *
+ * The filter is filled by a streaming scan of auth_users in the background after
+ * startup; until that finishes every lookup answers "maybe".
+ */
+@Component
+public class RegisteredEmailFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegisteredEmailFilter.class);
+
+    private final BloomFilter filter;
+    private final AuthUserBatchRepository authUserBatchRepository;
+    private final int fetchSize;
+
+    private volatile boolean ready;
+
+    private final Counter skippedCounter;
+    private final Counter queriedCounter;
+
+    public RegisteredEmailFilter(AuthUserBatchRepository authUserBatchRepository,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${auth.email-filter.expected-insertions:20000000}") long expectedInsertions,
+                                 @Value("${auth.email-filter.false-positive-probability:0.01}") double fpp,
+                                 @Value("${auth.email-filter.fetch-size:-2147483648}") int fetchSize) {
+        this.authUserBatchRepository = authUserBatchRepository;
+        this.fetchSize = fetchSize;
+        this.filter = new BloomFilter(expectedInsertions, fpp);
+
+        Gauge.builder("auth.email_filter.false_positive_probability", filter, BloomFilter::expectedFalsePositiveProbability)
+                .register(meterRegistry);
+        Gauge.builder("auth.email_filter.size", filter, BloomFilter::sizeInBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("auth.email_filter.approximate_count", filter, BloomFilter::approximateElementCount)
+                .register(meterRegistry);
+        this.skippedCounter = Counter.builder("auth.email_filter.checks").tag("result", "skipped_db").register(meterRegistry);
+        this.queriedCounter = Counter.builder("auth.email_filter.checks").tag("result", "queried_db").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Thread warmer = new Thread(() -> {
+            try {
+                long start = System.currentTimeMillis();
+                long[] count = {0};
+                authUserBatchRepository.forEachEmail(fetchSize, email -> {
+                    filter.put(normalize(email));
+                    count[0]++;
+                });
+                ready = true;
+                logger.info("Email filter warmed with {} emails in {} ms ({} bytes, {} hash functions)",
+                        count[0], System.currentTimeMillis() - start, filter.sizeInBytes(), filter.getHashCount());
+            } catch (Exception e) {
+                logger.error("Email filter warm-up failed; register keeps querying the DB", e);
+            }
+        }, "email-filter-warmup");
+        warmer.setDaemon(true);
+        warmer.start();
+    }
+
+    // false only when the email is certainly not registered
+    public boolean mightBeRegistered(String email) {
+        boolean maybe = !ready || email == null || filter.mightContain(normalize(email));
+        (maybe ? queriedCounter : skippedCounter).increment();
+        return maybe;
+    }
+
+    public void add(String email) {
+        filter.put(normalize(email));
+    }
+
+    // auth_users.email uses MySQL's case-insensitive collation
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,73 @@
+package com.blueforce.auth.service;
+
+import com.blueforce.auth.dto.UserRegisteredEvent;
+import com.blueforce.auth.entity.AuthUser;
+import com.blueforce.auth.entity.OutboxEvent;
+import com.blueforce.auth.repository.OutboxBatchRepository;
+import com.blueforce.auth.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Records UserRegisteredEvents in the outbox. Must run inside the transaction that
+ * inserts the AuthUser, so the user and its event commit (or roll back) together;
+ * OutboxRelay does the actual Kafka send.
+ */
+@Component
+public class UserEventPublisher {
+
+    public static final String USER_REGISTERED_TOPIC = "user-registered";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxBatchRepository outboxBatchRepository;
+    private final ObjectMapper objectMapper;
+
+    public UserEventPublisher(OutboxEventRepository outboxEventRepository,
+                              OutboxBatchRepository outboxBatchRepository,
+                              ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxBatchRepository = outboxBatchRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishUserRegistered(AuthUser authUser) {
+        outboxEventRepository.save(toOutboxEvent(authUser));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishUserRegistered(List<AuthUser> authUsers) {
+        if (authUsers.isEmpty()) return;
+        outboxBatchRepository.insertAll(authUsers.stream().map(this::toOutboxEvent).toList());
+    }
+
+    private OutboxEvent toOutboxEvent(AuthUser authUser) {
+        UserRegisteredEvent event = UserRegisteredEvent.builder()
+                // generated once here, so relay retries and redeliveries all carry the same id
+                .eventId(UUID.randomUUID().toString())
+                .id(authUser.getId())
+                .email(authUser.getEmail())
+                .role(authUser.getRole())
+                .verified(authUser.isVerified())
+                .provider(authUser.getProvider().name())
+                .build();
+        try {
+            return OutboxEvent.builder()
+                    .topic(USER_REGISTERED_TOPIC)
+                    // keyed by email: every event for a user lands on one partition, in order
+                    .eventKey(authUser.getEmail())
+                    .payload(objectMapper.writeValueAsString(event))
+                    .createdAt(LocalDateTime.now())
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize user registration event", e);
+        }
+    }
+}
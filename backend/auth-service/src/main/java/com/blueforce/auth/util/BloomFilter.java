@@ -0,0 +1,80 @@
+package com.blueforce.auth.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter over strings, backed by an {@link AtomicLongArray} so inserts
+ * and lookups never lock. Sized from the expected number of insertions and the target
+ * false-positive probability; uses Kirsch–Mitzenmacher double hashing for the k probes.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitSize;
+    private final int hashCount;
+    private final AtomicLong bitsSet = new AtomicLong();
+
+    public BloomFilter(long expectedInsertions, double falsePositiveProbability) {
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, (m + 63) >>> 6);
+        this.words = new AtomicLongArray(words);
+        this.bitSize = (long) words << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitSize / n * Math.log(2)));
+    }
+
+    // Returns true if the filter changed, i.e. the value was definitely not present before
+    public boolean put(String value) {
+        long h1 = Hash64.of(value, 0x9E3779B97F4A7C15L);
+        long h2 = Hash64.of(value, 0xC2B2AE3D27D4EB4FL) | 1;
+        boolean changed = false;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitSize);
+            if (setBit(bit)) changed = true;
+        }
+        return changed;
+    }
+
+    // false means definitely absent; true means probably present
+    public boolean mightContain(String value) {
+        long h1 = Hash64.of(value, 0x9E3779B97F4A7C15L);
+        long h2 = Hash64.of(value, 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitSize);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    // Current false-positive probability given how full the filter is
+    public double expectedFalsePositiveProbability() {
+        return Math.pow((double) bitsSet.get() / bitSize, hashCount);
+    }
+
+    // Estimated number of distinct values inserted (Swamidass & Baldi)
+    public long approximateElementCount() {
+        double fractionSet = (double) bitsSet.get() / bitSize;
+        return Math.round(-Math.log1p(-fractionSet) * bitSize / hashCount);
+    }
+
+    public long sizeInBytes() {
+        return (long) words.length() * Long.BYTES;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    private boolean setBit(long bit) {
+        int index = (int) (bit >>> 6);
+        long mask = 1L << bit;
+        long current;
+        do {
+            current = words.get(index);
+            if ((current & mask) != 0) return false;
+        } while (!words.compareAndSet(index, current, current | mask));
+        bitsSet.incrementAndGet();
+        return true;
+    }
+}
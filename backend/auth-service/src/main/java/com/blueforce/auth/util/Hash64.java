@@ -0,0 +1,26 @@
+package com.blueforce.auth.util;
+
+/**
+ * Seeded 64-bit hash of a string's characters (a multiply-rotate pass finished with the
+ * murmur3 fmix64 avalanche). Different seeds give unrelated hashes of the same string,
+ * unlike anything derived from {@link String#hashCode()}.
+ */
+final class Hash64 {
+
+    private Hash64() {
+    }
+
+    static long of(String value, long seed) {
+        long h = seed;
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * 0x100000001B3L;
+            h = Long.rotateLeft(h, 27);
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
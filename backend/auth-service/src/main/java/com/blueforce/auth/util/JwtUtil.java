@@ -2,7 +2,6 @@ package com.blueforce.auth.util;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -20,22 +19,22 @@ public class JwtUtil {
 
     private final KeyPair keyPair;
 
-    public JwtUtil(com.blueforce.auth.config.RsaKeyConfig rsaKeyConfig) {
+    // Pre-encoded header/issuer + reusable signers; replaces the per-call JJWT builder
+    private final TokenSigner tokenSigner;
+
+    public JwtUtil(com.blueforce.auth.config.RsaKeyConfig rsaKeyConfig,
+                   @Value("${jwt.issuer:blueforce-auth-service}") String issuer) {
         this.keyPair = rsaKeyConfig.getKeyPair();
+        this.tokenSigner = new TokenSigner(keyPair.getPrivate(), rsaKeyConfig.getSigningAlgorithm(),
+                rsaKeyConfig.getKeyId(), issuer);
     }
 
     private final long EXPIRATION_TIME = 1000 * 60 * 60; // 1 hour
 
-    public String generateToken(String email, String role) {
-        return Jwts.builder()
-                .setSubject(email)
-                .claim("role", role)
-                .setIssuer("blueforce-auth-service")
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                .setHeaderParam("kid", "key-1")        // include Key ID
-                .signWith(keyPair.getPrivate(), SignatureAlgorithm.RS256)
-                .compact();
+    // uid is the auth_users id; user-service keeps it in users.auth_user_id, not as its primary key
+    public String generateToken(Long userId, String email, String role) {
+        long now = System.currentTimeMillis();
+        return tokenSigner.sign(email, userId, role, now, now + EXPIRATION_TIME);
     }
 
 
@@ -0,0 +1,48 @@
+package com.blueforce.auth.util;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+
+/**
+ * JWS algorithms the auth-service can sign with, selected by {@code jwt.signing-algorithm}.
+ *
+ * RS256 is what resource servers verify by default. ES256 needs
+ * {@code spring.security.oauth2.resourceserver.jwt.jws-algorithms=ES256} on the gateway and
+ * user-service. EdDSA is signed and published correctly, but Spring Security's
+ * NimbusJwtDecoder cannot verify it yet, so it is only meant for benchmarking for now:
+ * auth-service refuses to start with it unless {@code jwt.allow-unverifiable-algorithm=true}.
+ */
+public enum SigningAlgorithm {
+
+    RS256("RSA", "SHA256withRSA", "rsa", "key-1"),
+    ES256("EC", "SHA256withECDSAinP1363Format", "ec", "ec-key-1"),   // JWS wants raw R||S, not DER
+    EdDSA("Ed25519", "Ed25519", "ed25519", "ed-key-1");
+
+    private final String keyAlgorithm;
+    private final String jcaSignatureAlgorithm;
+    private final String keyFilePrefix;
+    private final String defaultKeyId;
+
+    SigningAlgorithm(String keyAlgorithm, String jcaSignatureAlgorithm, String keyFilePrefix, String defaultKeyId) {
+        this.keyAlgorithm = keyAlgorithm;
+        this.jcaSignatureAlgorithm = jcaSignatureAlgorithm;
+        this.keyFilePrefix = keyFilePrefix;
+        this.defaultKeyId = defaultKeyId;
+    }
+
+    public String getKeyAlgorithm() { return keyAlgorithm; }
+    public String getJcaSignatureAlgorithm() { return jcaSignatureAlgorithm; }
+    public String getKeyFilePrefix() { return keyFilePrefix; }
+    public String getDefaultKeyId() { return defaultKeyId; }
+
+    public KeyPairGenerator newKeyPairGenerator() throws GeneralSecurityException {
+        KeyPairGenerator keyGen = KeyPairGenerator.getInstance(keyAlgorithm);
+        switch (this) {
+            case RS256 -> keyGen.initialize(2048);
+            case ES256 -> keyGen.initialize(new ECGenParameterSpec("secp256r1"));
+            case EdDSA -> { } // Ed25519 has a single parameter set
+        }
+        return keyGen;
+    }
+}
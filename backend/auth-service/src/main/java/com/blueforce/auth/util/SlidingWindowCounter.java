@@ -0,0 +1,124 @@
+package com.blueforce.auth.util;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded, lock-free approximate sliding-window counter.
+ *
+ * Keys are hashed into a fixed count-min grid ({@code depth} rows of {@code width} cells),
+ * so memory never grows with the number of distinct keys and old keys "evict" themselves:
+ * a cell whose window is more than one window old reads as zero and is overwritten on the
+ * next hit. Each cell packs the window index, the current window's count and the previous
+ * window's count into one long updated with CAS; the sliding count is
+ * {@code current + previous * (1 - elapsedFractionOfCurrentWindow)}.
+ *
+ * Every row hashes the key on its own: a 64-bit hash of the key's characters under a
+ * per-row seed drawn at random when the counter is created. Two keys share a cell in a row
+ * with probability about 1/width, and in every row only about once in width^depth, which is
+ * what keeps the minimum close to the true count. The seeds never leave the process, so
+ * colliding keys cannot be worked out in advance the way equal {@link String#hashCode()}
+ * emails or addresses can. Collisions can only over-count, never under-count. Counts
+ * saturate at 4095 per window.
+ */
+public class SlidingWindowCounter {
+
+    private static final int COUNT_BITS = 12;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private static final int WINDOW_SHIFT = 2 * COUNT_BITS;
+
+    private static final int MAX_DEPTH = 4;
+
+    private final long[] seeds;
+    private final AtomicLongArray cells;
+    private final int depth;
+    private final int widthMask;
+    private final long windowMillis;
+
+    /**
+     * @param width        cells per row, rounded up to a power of two
+     * @param depth        number of hash rows (1-4)
+     * @param windowMillis sliding window length
+     */
+    public SlidingWindowCounter(int width, int depth, long windowMillis) {
+        if (depth < 1 || depth > MAX_DEPTH) {
+            throw new IllegalArgumentException("depth must be between 1 and " + MAX_DEPTH);
+        }
+        SecureRandom random = new SecureRandom();
+        this.seeds = new long[depth];
+        for (int row = 0; row < depth; row++) seeds[row] = random.nextLong();
+        int w = Integer.highestOneBit(Math.max(2, width - 1)) << 1;
+        this.cells = new AtomicLongArray(w * depth);
+        this.depth = depth;
+        this.widthMask = w - 1;
+        this.windowMillis = windowMillis;
+    }
+
+    // Records one event for the key and returns the sliding-window count including it
+    public double increment(String key, long nowMillis) {
+        long window = nowMillis / windowMillis;
+        double fraction = (double) (nowMillis % windowMillis) / windowMillis;
+        double min = Double.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int index = cellIndex(key, row);
+            long current;
+            long updated;
+            do {
+                current = cells.get(index);
+                updated = bump(current, window);
+            } while (!cells.compareAndSet(index, current, updated));
+            min = Math.min(min, estimate(updated, window, fraction));
+        }
+        return min;
+    }
+
+    public double count(String key, long nowMillis) {
+        long window = nowMillis / windowMillis;
+        double fraction = (double) (nowMillis % windowMillis) / windowMillis;
+        double min = Double.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, estimate(cells.get(cellIndex(key, row)), window, fraction));
+        }
+        return min;
+    }
+
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+
+    // Approximate footprint of the cell grid
+    public long sizeInBytes() {
+        return (long) cells.length() * Long.BYTES;
+    }
+
+    private int cellIndex(String key, int row) {
+        return row * (widthMask + 1) + (int) (Hash64.of(key, seeds[row]) & widthMask);
+    }
+
+    private static long bump(long cell, long window) {
+        long cellWindow = cell >>> WINDOW_SHIFT;
+        long cur = (cell >>> COUNT_BITS) & COUNT_MASK;
+        if (cellWindow == window) {
+            return pack(window, Math.min(cur + 1, COUNT_MASK), cell & COUNT_MASK);
+        }
+        long prev = cellWindow == window - 1 ? cur : 0;
+        return pack(window, 1, prev);
+    }
+
+    private static double estimate(long cell, long window, double fraction) {
+        long cellWindow = cell >>> WINDOW_SHIFT;
+        long cur = (cell >>> COUNT_BITS) & COUNT_MASK;
+        long prev = cell & COUNT_MASK;
+        if (cellWindow == window) {
+            return cur + prev * (1 - fraction);
+        }
+        if (cellWindow == window - 1) {
+            return cur * (1 - fraction);
+        }
+        return 0;
+    }
+
+    private static long pack(long window, long cur, long prev) {
+        return (window << WINDOW_SHIFT) | (cur << COUNT_BITS) | prev;
+    }
+}
@@ -0,0 +1,151 @@
+package com.blueforce.auth.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Mints compact JWS tokens (RS256 by default, see {@link SigningAlgorithm}) without going
+ * through the JJWT builder.
+ *
+ * The header and issuer never change, so the header segment is encoded once up front
+ * and the issuer is kept as pre-escaped JSON. Claims are written into a reusable buffer
+ * and signed with a {@link Signature} that stays initialised for the private key, so a
+ * token costs one JSON write, two Base64URL encodes and the signature operation itself.
+ *
+ * Signer/buffer pairs live in a shared pool rather than ThreadLocals: with virtual
+ * threads every request runs on a fresh thread and a ThreadLocal would never be reused.
+ * The pool grows to the peak number of concurrent signers and no further.
+ */
+public class TokenSigner {
+
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final byte[] headerSegment;
+    private final String issuerJson;
+    private final PrivateKey privateKey;
+    private final SigningAlgorithm algorithm;
+    private final ConcurrentLinkedQueue<Slot> pool = new ConcurrentLinkedQueue<>();
+
+    private record Slot(Signature signature, StringBuilder claims) {}
+
+    public TokenSigner(PrivateKey privateKey, String keyId, String issuer) {
+        this(privateKey, SigningAlgorithm.RS256, keyId, issuer);
+    }
+
+    public TokenSigner(PrivateKey privateKey, SigningAlgorithm algorithm, String keyId, String issuer) {
+        String header = "{\"kid\":" + jsonString(keyId) + ",\"alg\":" + jsonString(algorithm.name()) + "}";
+        this.headerSegment = BASE64_URL.encode(header.getBytes(StandardCharsets.UTF_8));
+        this.issuerJson = jsonString(issuer);
+        this.privateKey = privateKey;
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * Signs a token for the given subject and role. Null claims are omitted, as JJWT does.
+     *
+     * @param issuedAtMillis  issue time in epoch millis (serialized as seconds, like JJWT)
+     * @param expiresAtMillis expiry time in epoch millis
+     */
+    public String sign(String subject, String role, long issuedAtMillis, long expiresAtMillis) {
+        return sign(subject, null, role, issuedAtMillis, expiresAtMillis);
+    }
+
+    /**
+     * Same as {@link #sign(String, String, long, long)}, plus the numeric user id as the
+     * {@code uid} claim (a JSON number; omitted when null).
+     */
+    public String sign(String subject, Long userId, String role, long issuedAtMillis, long expiresAtMillis) {
+        Slot slot = pool.poll();
+        if (slot == null) {
+            slot = new Slot(newSignature(privateKey, algorithm), new StringBuilder(256));
+        }
+        String token = sign(slot, subject, userId, role, issuedAtMillis, expiresAtMillis);
+        pool.offer(slot); // only clean signers go back; a failed one is dropped
+        return token;
+    }
+
+    private String sign(Slot slot, String subject, Long userId, String role,
+                        long issuedAtMillis, long expiresAtMillis) {
+        StringBuilder claims = slot.claims();
+        claims.setLength(0);
+        claims.append('{');
+        if (subject != null) {
+            claims.append("\"sub\":");
+            appendJsonString(claims, subject);
+            claims.append(',');
+        }
+        if (userId != null) {
+            claims.append("\"uid\":").append(userId.longValue()).append(',');
+        }
+        if (role != null) {
+            claims.append("\"role\":");
+            appendJsonString(claims, role);
+            claims.append(',');
+        }
+        claims.append("\"iss\":").append(issuerJson)
+                .append(",\"iat\":").append(issuedAtMillis / 1000)
+                .append(",\"exp\":").append(expiresAtMillis / 1000)
+                .append('}');
+
+        byte[] payloadSegment = BASE64_URL.encode(claims.toString().getBytes(StandardCharsets.UTF_8));
+
+        // header '.' payload is both the signing input and the prefix of the token
+        byte[] token = new byte[headerSegment.length + 1 + payloadSegment.length];
+        System.arraycopy(headerSegment, 0, token, 0, headerSegment.length);
+        token[headerSegment.length] = '.';
+        System.arraycopy(payloadSegment, 0, token, headerSegment.length + 1, payloadSegment.length);
+
+        byte[] signature;
+        try {
+            Signature signer = slot.signature();
+            signer.update(token);
+            signature = signer.sign(); // sign() resets the object for the next token
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to sign token", e);
+        }
+
+        return new String(token, StandardCharsets.US_ASCII) + '.' + BASE64_URL.encodeToString(signature);
+    }
+
+    private static Signature newSignature(PrivateKey privateKey, SigningAlgorithm algorithm) {
+        try {
+            Signature signature = Signature.getInstance(algorithm.getJcaSignatureAlgorithm());
+            signature.initSign(privateKey);
+            return signature;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to initialise " + algorithm + " signer", e);
+        }
+    }
+
+    private static String jsonString(String value) {
+        StringBuilder sb = new StringBuilder();
+        appendJsonString(sb, value);
+        return sb.toString();
+    }
+
+    private static void appendJsonString(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        sb.append('"');
+    }
+}
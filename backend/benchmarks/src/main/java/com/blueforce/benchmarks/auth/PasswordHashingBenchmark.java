@@ -0,0 +1,47 @@
+package com.blueforce.benchmarks.auth;
+
+import com.blueforce.auth.config.SecurityConfig;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * bcrypt cost per call with the encoder auth-service actually wires up
+ * ({@link SecurityConfig#passwordEncoder()}), so a strength change shows up here.
+ * This is the CPU time every register and login spends on the hashing pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    private static final String PASSWORD = "correct-horse-battery-staple";
+
+    private PasswordEncoder passwordEncoder;
+    private String encoded;
+
+    @Setup
+    public void setup() {
+        passwordEncoder = new SecurityConfig().passwordEncoder();
+        encoded = passwordEncoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public String encode() {
+        return passwordEncoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return passwordEncoder.matches(PASSWORD, encoded);
+    }
+
+    @Benchmark
+    public boolean mismatch() {
+        return passwordEncoder.matches("wrong-password", encoded);
+    }
+}
@@ -0,0 +1,64 @@
+package com.blueforce.benchmarks.auth;
+
+import com.blueforce.auth.util.SigningAlgorithm;
+import com.blueforce.auth.util.TokenSigner;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.Signature;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sign and verify throughput per {@code jwt.signing-algorithm}, through the same
+ * {@link TokenSigner} the auth-service uses. Token and signature sizes are printed
+ * during setup, since they end up in every header forwarded through the gateway.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SigningAlgorithmBenchmark {
+
+    private static final long EXPIRATION_TIME = 1000 * 60 * 60;
+
+    @Param({"RS256", "ES256", "EdDSA"})
+    public SigningAlgorithm algorithm;
+
+    private TokenSigner tokenSigner;
+    private Signature verifier;
+    private byte[] signingInput;
+    private byte[] signature;
+
+    @Setup
+    public void setup() throws Exception {
+        KeyPair keyPair = algorithm.newKeyPairGenerator().generateKeyPair();
+        tokenSigner = new TokenSigner(keyPair.getPrivate(), algorithm, algorithm.getDefaultKeyId(), "blueforce-auth-service");
+
+        long now = System.currentTimeMillis();
+        String token = tokenSigner.sign("volunteer@blueforce.org", "PARTICIPANT", now, now + EXPIRATION_TIME);
+        int lastDot = token.lastIndexOf('.');
+        signingInput = token.substring(0, lastDot).getBytes(StandardCharsets.US_ASCII);
+        signature = Base64.getUrlDecoder().decode(token.substring(lastDot + 1));
+
+        verifier = Signature.getInstance(algorithm.getJcaSignatureAlgorithm());
+        verifier.initVerify(keyPair.getPublic());
+
+        System.out.printf("%n%s: token %d bytes, signature %d bytes%n", algorithm, token.length(), signature.length);
+    }
+
+    @Benchmark
+    public String sign() {
+        long now = System.currentTimeMillis();
+        return tokenSigner.sign("volunteer@blueforce.org", "PARTICIPANT", now, now + EXPIRATION_TIME);
+    }
+
+    @Benchmark
+    public boolean verify() throws Exception {
+        verifier.update(signingInput);
+        return verifier.verify(signature);
+    }
+}
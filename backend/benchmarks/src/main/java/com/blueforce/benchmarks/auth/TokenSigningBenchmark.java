@@ -0,0 +1,83 @@
+package com.blueforce.benchmarks.auth;
+
+import com.blueforce.auth.config.RsaKeyConfig;
+import com.blueforce.auth.util.JwtUtil;
+import com.blueforce.auth.util.SigningAlgorithm;
+import com.blueforce.auth.util.TokenSigner;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tokens/sec of the JJWT builder path that JwtUtil.generateToken used to take,
+ * against the pre-encoded {@link TokenSigner} it uses now, plus {@link JwtUtil#generateToken}
+ * itself so the service entry point is tracked end to end.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenSigningBenchmark {
+
+    private static final long EXPIRATION_TIME = 1000 * 60 * 60;
+
+    private KeyPair keyPair;
+    private TokenSigner tokenSigner;
+    private JwtUtil jwtUtil;
+
+    @Setup
+    public void setup() throws Exception {
+        KeyPairGenerator keyGen = KeyPairGenerator.getInstance("RSA");
+        keyGen.initialize(2048);
+        keyPair = keyGen.generateKeyPair();
+        tokenSigner = new TokenSigner(keyPair.getPrivate(), "key-1", "blueforce-auth-service");
+
+        // in-memory keys instead of RsaKeyConfig.init(), which reads/writes keys/*.pem
+        KeyPair generated = keyPair;
+        RsaKeyConfig keyConfig = new RsaKeyConfig(SigningAlgorithm.RS256) {
+            @Override
+            public KeyPair getKeyPair() {
+                return generated;
+            }
+        };
+        jwtUtil = new JwtUtil(keyConfig, "blueforce-auth-service");
+    }
+
+    @Benchmark
+    public String jjwtBuilder() {
+        return Jwts.builder()
+                .setSubject("volunteer@blueforce.org")
+                .claim("role", "PARTICIPANT")
+                .setIssuer("blueforce-auth-service")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
+                .setHeaderParam("kid", "key-1")
+                .signWith(keyPair.getPrivate(), SignatureAlgorithm.RS256)
+                .compact();
+    }
+
+    @Benchmark
+    public String tokenSigner() {
+        long now = System.currentTimeMillis();
+        return tokenSigner.sign("volunteer@blueforce.org", "PARTICIPANT", now, now + EXPIRATION_TIME);
+    }
+
+    @Benchmark
+    public String jwtUtilGenerateToken() {
+        return jwtUtil.generateToken(42L, "volunteer@blueforce.org", "PARTICIPANT");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String tokenSignerContended() {
+        long now = System.currentTimeMillis();
+        return tokenSigner.sign("volunteer@blueforce.org", "PARTICIPANT", now, now + EXPIRATION_TIME);
+    }
+}
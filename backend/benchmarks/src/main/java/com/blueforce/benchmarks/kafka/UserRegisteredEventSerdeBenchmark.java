@@ -0,0 +1,73 @@
+package com.blueforce.benchmarks.kafka;
+
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The user-registered wire format: auth-service's {@link JsonSerializer} on the producer
+ * side and user-service's {@link JsonDeserializer} on the consumer side, configured the
+ * same way as the two KafkaConfig classes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserRegisteredEventSerdeBenchmark {
+
+    private static final String TOPIC = "user-registered";
+
+    private JsonSerializer<com.blueforce.auth.dto.UserRegisteredEvent> serializer;
+    private JsonDeserializer<com.blueforce.user.dto.UserRegisteredEvent> deserializer;
+    private com.blueforce.auth.dto.UserRegisteredEvent event;
+    private byte[] payload;
+
+    @Setup
+    public void setup() {
+        serializer = new JsonSerializer<>();
+        serializer.configure(Map.of(), false);
+
+        deserializer = new JsonDeserializer<>(com.blueforce.user.dto.UserRegisteredEvent.class);
+        deserializer.configure(Map.of(
+                JsonDeserializer.TRUSTED_PACKAGES, "com.blueforce.user.dto",
+                JsonDeserializer.USE_TYPE_INFO_HEADERS, false), false);
+
+        event = com.blueforce.auth.dto.UserRegisteredEvent.builder()
+                .id(42L)
+                .email("volunteer@blueforce.org")
+                .role("PARTICIPANT")
+                .verified(false)
+                .provider("LOCAL")
+                .build();
+        payload = serializer.serialize(TOPIC, new RecordHeaders(), event);
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializer.close();
+        deserializer.close();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        // fresh headers per record, as the producer does; the serializer adds its type header
+        return serializer.serialize(TOPIC, new RecordHeaders(), event);
+    }
+
+    @Benchmark
+    public com.blueforce.user.dto.UserRegisteredEvent deserialize() {
+        return deserializer.deserialize(TOPIC, new RecordHeaders(), payload);
+    }
+
+    @Benchmark
+    public com.blueforce.user.dto.UserRegisteredEvent roundTrip() {
+        RecordHeaders headers = new RecordHeaders();
+        return deserializer.deserialize(TOPIC, headers, serializer.serialize(TOPIC, headers, event));
+    }
+}
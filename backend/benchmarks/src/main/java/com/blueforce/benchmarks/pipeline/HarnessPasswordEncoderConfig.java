@@ -0,0 +1,23 @@
+package com.blueforce.benchmarks.pipeline;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Lets the pipeline harness pick the bcrypt cost. At the production strength the hashing
+ * pool is the bottleneck and hides everything downstream of the outbox, so the harness
+ * defaults to the minimum (4); pass --bcrypt-strength=10 to include the real cost.
+ */
+@Configuration
+public class HarnessPasswordEncoderConfig {
+
+    @Bean
+    @Primary
+    public PasswordEncoder harnessPasswordEncoder(@Value("${harness.bcrypt-strength:4}") int strength) {
+        return new BCryptPasswordEncoder(strength);
+    }
+}
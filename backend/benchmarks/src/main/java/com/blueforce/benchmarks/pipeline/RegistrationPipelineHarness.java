@@ -0,0 +1,420 @@
+package com.blueforce.benchmarks.pipeline;
+
+import com.blueforce.auth.AuthServiceApplication;
+import com.blueforce.auth.dto.RegisterRequest;
+import com.blueforce.auth.exception.ServiceOverloadedException;
+import com.blueforce.auth.service.AuthService;
+import com.blueforce.user.UserServiceApplication;
+import com.blueforce.user.dto.PointsAwardedEvent;
+import com.blueforce.user.service.PointsAwardListener;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * End-to-end throughput of the registration pipeline:
+ * AuthService.register -> auth_outbox -> OutboxRelay -> Kafka "user-registered"
+ * -> UserEventListener.consume -> users table.
+ *
+ * Both services boot in this JVM against an embedded KRaft broker and two in-memory H2
+ * databases (MySQL mode). None of their application.properties are read; every property
+ * the harness needs is passed in below. The harness pushes N registrations from a pool of
+ * client threads, polls user-service's users table to see when each profile appears, and
+ * samples consumer-group lag and the outbox backlog while it runs. With --awards=N it then
+ * publishes N point awards to "points-awarded" and checks that every user's total arrives
+ * through PointsAggregator's batched flushes.
+ *
+ * Usage: java -cp target/benchmarks.jar com.blueforce.benchmarks.pipeline.RegistrationPipelineHarness
+ *            [--registrations=2000] [--clients=8] [--partitions=6] [--bcrypt-strength=4]
+ *            [--outbox-linger-ms=100] [--outbox-batch-size=500] [--virtual-threads=false]
+ *            [--timeout-seconds=300] [--awards=0] [--out=pipeline.json]
+ */
+public class RegistrationPipelineHarness {
+
+    private static final String TOPIC = "user-registered";
+    private static final String GROUP_ID = "user-service-group";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int registrations = intOption(options, "registrations", 2000);
+        int clients = intOption(options, "clients", 8);
+        int partitions = intOption(options, "partitions", 6);
+        int bcryptStrength = intOption(options, "bcrypt-strength", 4);
+        int lingerMs = intOption(options, "outbox-linger-ms", 100);
+        int batchSize = intOption(options, "outbox-batch-size", 500);
+        boolean virtualThreads = Boolean.parseBoolean(options.getOrDefault("virtual-threads", "false"));
+        long timeoutNanos = TimeUnit.SECONDS.toNanos(intOption(options, "timeout-seconds", 300));
+        int awards = intOption(options, "awards", 0);
+
+        EmbeddedKafkaKraftBroker broker = new EmbeddedKafkaKraftBroker(1, partitions, TOPIC);
+        broker.afterPropertiesSet();
+        String bootstrapServers = broker.getBrokersAsString();
+
+        ConfigurableApplicationContext userService = null;
+        ConfigurableApplicationContext authService = null;
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        try (AdminClient admin = AdminClient.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers))) {
+            // consumer side first, so it is assigned before the first event is published
+            userService = new SpringApplicationBuilder(UserServiceApplication.class)
+                    .run(serviceArgs("user-service", "blueforce_userdb", bootstrapServers, virtualThreads,
+                            "--kafka.user-registered.partitions=" + partitions,
+                            "--kafka.points-awarded.partitions=" + partitions,
+                            "--spring.kafka.consumer.group-id=" + GROUP_ID,
+                            "--spring.kafka.consumer.auto-offset-reset=earliest",
+                            // Connector/J's Integer.MIN_VALUE streaming hint is not valid for H2
+                            "--user.leaderboard.fetch-size=1000",
+                            "--user.search.fetch-size=1000",
+                            // the decoder is built lazily and never used here, the harness does not call the API
+                            "--spring.security.oauth2.resourceserver.jwt.jwk-set-uri=http://localhost:1/.well-known/jwks.json"));
+            for (MessageListenerContainer container : userService.getBean(KafkaListenerEndpointRegistry.class).getListenerContainers()) {
+                ContainerTestUtils.waitForAssignment(container, partitions);
+            }
+
+            authService = new SpringApplicationBuilder(AuthServiceApplication.class, HarnessPasswordEncoderConfig.class)
+                    .run(serviceArgs("auth-service", "blueforce_authdb", bootstrapServers, virtualThreads,
+                            "--kafka.user-registered.partitions=" + partitions,
+                            "--harness.bcrypt-strength=" + bcryptStrength,
+                            "--auth.outbox.linger-ms=" + lingerMs,
+                            "--auth.outbox.batch-size=" + batchSize,
+                            "--auth.email-filter.expected-insertions=" + Math.max(registrations * 2, 10_000),
+                            // Connector/J's Integer.MIN_VALUE streaming hint is not valid for H2
+                            "--auth.email-filter.fetch-size=1000"));
+
+            AuthService auth = authService.getBean(AuthService.class);
+            JdbcTemplate authJdbc = authService.getBean(JdbcTemplate.class);
+            JdbcTemplate userJdbc = userService.getBean(JdbcTemplate.class);
+
+            Map<String, Long> registeredAt = new ConcurrentHashMap<>(registrations * 2);
+            Map<String, Long> visibleAt = new ConcurrentHashMap<>(registrations * 2);
+            AtomicLong maxConsumerLag = new AtomicLong();
+            AtomicLong maxOutboxBacklog = new AtomicLong();
+            AtomicInteger overloadRetries = new AtomicInteger();
+
+            sampler.scheduleAtFixedRate(() -> {
+                try {
+                    maxConsumerLag.accumulateAndGet(consumerLag(admin), Math::max);
+                    Long backlog = authJdbc.queryForObject("SELECT COUNT(*) FROM auth_outbox WHERE sent_at IS NULL", Long.class);
+                    maxOutboxBacklog.accumulateAndGet(backlog == null ? 0 : backlog, Math::max);
+                } catch (Exception e) {
+                    // a missed sample only loses resolution
+                }
+            }, 0, 100, TimeUnit.MILLISECONDS);
+
+            Thread poller = new Thread(() -> pollVisibility(userJdbc, registeredAt, visibleAt, registrations, timeoutNanos), "profile-poller");
+            poller.setDaemon(true);
+            poller.start();
+
+            String runId = Long.toString(System.currentTimeMillis(), 36);
+            ExecutorService clientPool = Executors.newFixedThreadPool(clients);
+            long start = System.nanoTime();
+            List<Future<?>> submitted = new ArrayList<>(registrations);
+            for (int i = 0; i < registrations; i++) {
+                String email = "pipeline-" + runId + "-" + i + "@blueforce.org";
+                submitted.add(clientPool.submit(() -> {
+                    register(auth, email, overloadRetries);
+                    registeredAt.put(email, System.nanoTime());
+                }));
+            }
+            for (Future<?> future : submitted) {
+                future.get();
+            }
+            long registeredEnd = System.nanoTime();
+            clientPool.shutdown();
+
+            poller.join(TimeUnit.NANOSECONDS.toMillis(Math.max(0, timeoutNanos - (registeredEnd - start))) + 1);
+            long visibleEnd = visibleAt.values().stream().mapToLong(Long::longValue).max().orElse(registeredEnd);
+            long finalLag = consumerLag(admin);
+            long idMismatches = idMismatches(authJdbc, userJdbc);
+            Map<String, Object> pointsReport = awards > 0 && !visibleAt.isEmpty()
+                    ? runAwards(userService, userJdbc, admin, bootstrapServers, new ArrayList<>(visibleAt.keySet()), awards, timeoutNanos)
+                    : null;
+
+            long[] latencies = registeredAt.entrySet().stream()
+                    .filter(e -> visibleAt.containsKey(e.getKey()))
+                    .mapToLong(e -> visibleAt.get(e.getKey()) - e.getValue())
+                    .sorted()
+                    .toArray();
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("registrations", registrations);
+            report.put("clients", clients);
+            report.put("partitions", partitions);
+            report.put("bcryptStrength", bcryptStrength);
+            report.put("outboxLingerMs", lingerMs);
+            report.put("outboxBatchSize", batchSize);
+            report.put("virtualThreads", virtualThreads);
+            report.put("visible", latencies.length);
+            report.put("idMismatches", idMismatches);
+            report.put("registerThroughputPerSec", perSecond(registrations, registeredEnd - start));
+            report.put("endToEndThroughputPerSec", perSecond(latencies.length, visibleEnd - start));
+            report.put("overloadRetries", overloadRetries.get());
+            report.put("maxConsumerLag", maxConsumerLag.get());
+            report.put("finalConsumerLag", finalLag);
+            report.put("maxOutboxBacklog", maxOutboxBacklog.get());
+            Map<String, Double> percentiles = new LinkedHashMap<>();
+            for (double p : new double[]{50, 90, 99, 99.9, 100}) {
+                percentiles.put(p == 100 ? "max" : "p" + (p % 1 == 0 ? Integer.toString((int) p) : Double.toString(p)),
+                        percentileMillis(latencies, p));
+            }
+            report.put("visibilityLatencyMs", percentiles);
+            if (pointsReport != null) report.put("points", pointsReport);
+
+            print(report);
+            if (options.containsKey("out")) {
+                new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(new File(options.get("out")), report);
+            }
+            if (latencies.length < registrations) {
+                System.err.printf("%d of %d profiles never became visible%n", registrations - latencies.length, registrations);
+                System.exit(1);
+            }
+            if (pointsReport != null && !Long.valueOf(0).equals(pointsReport.get("mismatchedUsers"))) {
+                System.err.printf("%s users ended with the wrong points total%n", pointsReport.get("mismatchedUsers"));
+                System.exit(1);
+            }
+        } finally {
+            sampler.shutdownNow();
+            if (authService != null) authService.close();
+            if (userService != null) userService.close();
+            broker.destroy();
+        }
+    }
+
+    private static void register(AuthService auth, String email, AtomicInteger overloadRetries) {
+        while (true) {
+            try {
+                auth.register(new RegisterRequest(email, "pipeline-password", "PARTICIPANT"));
+                return;
+            } catch (ServiceOverloadedException e) {
+                // the hashing queue is full: back off like a client honouring Retry-After, but shorter
+                overloadRetries.incrementAndGet();
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Publishes random point awards (1-10 points) to points-awarded for the registered users,
+     * waits until users.points adds up to what was sent, then checks every user's total and
+     * that the consumer group's offsets caught up (they only move after a flush commits).
+     */
+    private static Map<String, Object> runAwards(ConfigurableApplicationContext userService, JdbcTemplate userJdbc,
+                                                 AdminClient admin, String bootstrapServers, List<String> emails,
+                                                 int awards, long timeoutNanos) throws Exception {
+        Map<String, Object> producerProps = Map.of(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+                ProducerConfig.LINGER_MS_CONFIG, 5);
+        KafkaTemplate<String, PointsAwardedEvent> producer = new KafkaTemplate<>(
+                new DefaultKafkaProducerFactory<>(producerProps, new StringSerializer(), new JsonSerializer<>()));
+        Map<String, Long> expected = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(7);
+        long start = System.nanoTime();
+        for (int i = 0; i < awards; i++) {
+            String email = emails.get(random.nextInt(emails.size()));
+            int points = 1 + random.nextInt(10);
+            expected.merge(email, (long) points, Long::sum);
+            producer.send(PointsAwardListener.POINTS_AWARDED_TOPIC, email, PointsAwardedEvent.builder()
+                    .eventId(UUID.randomUUID().toString())
+                    .email(email)
+                    .points(points)
+                    .reason("HARNESS")
+                    .awardedAt(System.currentTimeMillis())
+                    .build());
+        }
+        producer.flush();
+        long sent = System.nanoTime();
+        long expectedTotal = expected.values().stream().mapToLong(Long::longValue).sum();
+
+        long deadline = start + timeoutNanos;
+        Long total = 0L;
+        while (System.nanoTime() < deadline) {
+            total = userJdbc.queryForObject("SELECT COALESCE(SUM(points), 0) FROM users", Long.class);
+            if (total != null && total >= expectedTotal) break;
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+        }
+        long applied = System.nanoTime();
+
+        long[] mismatched = {0};
+        userJdbc.query("SELECT email, points FROM users", rs -> {
+            if (rs.getLong(2) != expected.getOrDefault(rs.getString(1), 0L)) mismatched[0]++;
+        });
+        long lag = consumerLag(admin, PointsAwardListener.POINTS_AWARDED_TOPIC);
+        for (int i = 0; i < 50 && lag > 0; i++) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100));
+            lag = consumerLag(admin, PointsAwardListener.POINTS_AWARDED_TOPIC);
+        }
+        producer.destroy();
+
+        DistributionSummary flushes = userService.getBean(MeterRegistry.class).find("user.points.flush.size").summary();
+        Map<String, Object> points = new LinkedHashMap<>();
+        points.put("awards", awards);
+        points.put("users", expected.size());
+        points.put("publishPerSec", perSecond(awards, sent - start));
+        points.put("appliedPerSec", perSecond(awards, applied - start));
+        points.put("flushes", flushes == null ? 0 : flushes.count());
+        points.put("meanUsersPerFlush", flushes == null ? 0.0 : flushes.mean());
+        points.put("mismatchedUsers", mismatched[0]);
+        points.put("finalLag", lag);
+        return points;
+    }
+
+    // Users whose users.auth_user_id differs from their auth_users.id (the token's uid claim); should be 0
+    private static long idMismatches(JdbcTemplate authJdbc, JdbcTemplate userJdbc) {
+        Map<String, Long> authIds = new HashMap<>();
+        authJdbc.query("SELECT email, id FROM auth_users", rs -> {
+            authIds.put(rs.getString(1), rs.getLong(2));
+        });
+        long[] mismatches = {0};
+        userJdbc.query("SELECT email, auth_user_id FROM users", rs -> {
+            Long authId = authIds.get(rs.getString(1));
+            if (authId != null && authId != rs.getLong(2)) mismatches[0]++;
+        });
+        return mismatches[0];
+    }
+
+    // Looks up the emails whose register() has returned but that are not visible yet. A keyset
+    // scan on users.id would miss rows: concurrent consumers commit ids out of order.
+    private static void pollVisibility(JdbcTemplate userJdbc, Map<String, Long> registeredAt,
+                                       Map<String, Long> visibleAt, int expected, long timeoutNanos) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (visibleAt.size() < expected && System.nanoTime() < deadline) {
+            List<String> pending = registeredAt.keySet().stream()
+                    .filter(email -> !visibleAt.containsKey(email))
+                    .toList();
+            int found = 0;
+            for (int from = 0; from < pending.size(); from += 500) {
+                List<String> chunk = pending.subList(from, Math.min(from + 500, pending.size()));
+                String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+                List<String> visible = userJdbc.queryForList(
+                        "SELECT email FROM users WHERE email IN (" + placeholders + ")", String.class, chunk.toArray());
+                long now = System.nanoTime();
+                for (String email : visible) {
+                    visibleAt.putIfAbsent(email, now);
+                }
+                found += visible.size();
+            }
+            if (found == 0) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(2));
+            }
+        }
+    }
+
+    private static long consumerLag(AdminClient admin) throws ExecutionException, InterruptedException {
+        return consumerLag(admin, TOPIC);
+    }
+
+    private static long consumerLag(AdminClient admin, String topic) throws ExecutionException, InterruptedException {
+        Map<TopicPartition, OffsetAndMetadata> committed =
+                admin.listConsumerGroupOffsets(GROUP_ID).partitionsToOffsetAndMetadata().get();
+        Set<TopicPartition> partitions = admin.describeTopics(List.of(topic)).allTopicNames().get().get(topic)
+                .partitions().stream()
+                .map(info -> new TopicPartition(topic, info.partition()))
+                .collect(Collectors.toSet());
+        Map<TopicPartition, OffsetSpec> latest = partitions.stream()
+                .collect(Collectors.toMap(Function.identity(), tp -> OffsetSpec.latest()));
+        long lag = 0;
+        for (var entry : admin.listOffsets(latest).all().get().entrySet()) {
+            OffsetAndMetadata offset = committed.get(entry.getKey());
+            lag += entry.getValue().offset() - (offset == null ? 0 : offset.offset());
+        }
+        return lag;
+    }
+
+    private static String[] serviceArgs(String name, String database, String bootstrapServers,
+                                        boolean virtualThreads, String... extra) {
+        List<String> args = new ArrayList<>(List.of(
+                // skip every application.properties on the classpath; both service jars ship one
+                "--spring.config.name=pipeline-harness",
+                "--spring.application.name=" + name,
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.cloud=ERROR",
+                "--server.port=0",
+                "--spring.jmx.enabled=false",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--spring.datasource.url=jdbc:h2:mem:" + database + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.kafka.bootstrap-servers=" + bootstrapServers,
+                "--eureka.client.enabled=false",
+                "--spring.cloud.discovery.enabled=false",
+                // api-gateway is on this classpath too (for the JMH suites); keep it out of both contexts
+                "--spring.cloud.gateway.enabled=false",
+                "--spring.cloud.gateway.server.webflux.enabled=false"));
+        args.addAll(List.of(extra));
+        return args.toArray(String[]::new);
+    }
+
+    private static double perSecond(int count, long nanos) {
+        return nanos <= 0 ? 0 : count / (nanos / 1e9);
+    }
+
+    private static double percentileMillis(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) return Double.NaN;
+        int index = (int) Math.ceil(percentile / 100 * sortedNanos.length) - 1;
+        return sortedNanos[Math.min(Math.max(index, 0), sortedNanos.length - 1)] / 1e6;
+    }
+
+    private static void print(Map<String, Object> report) {
+        System.out.println();
+        System.out.println("Registration pipeline");
+        report.forEach((key, value) -> System.out.printf("  %-26s %s%n", key, format(value)));
+    }
+
+    private static String format(Object value) {
+        if (value instanceof Double d) return String.format("%.1f", d);
+        if (value instanceof Map<?, ?> map) {
+            return map.entrySet().stream()
+                    .map(e -> e.getKey() + "=" + format(e.getValue()))
+                    .collect(Collectors.joining(" "));
+        }
+        return String.valueOf(value);
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return options;
+    }
+
+    private static int intOption(Map<String, String> options, String name, int defaultValue) {
+        String value = options.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+}
@@ -0,0 +1,60 @@
+package com.blueforce.benchmarks.security;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jwt.Jwt;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The "role" claim to ROLE_ authority mapping that runs on every authenticated request:
+ * once in the gateway (reactive adapter) and again in user-service. Both converters
+ * come straight from the services' SecurityConfig bean methods.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoleClaimConverterBenchmark {
+
+    // VOLUNTEER takes the legacy remapping branch
+    @Param({"PARTICIPANT", "VOLUNTEER", "ADMIN"})
+    public String role;
+
+    private Converter<Jwt, AbstractAuthenticationToken> userServiceConverter;
+    private Converter<Jwt, Mono<AbstractAuthenticationToken>> gatewayConverter;
+    private Jwt jwt;
+
+    @Setup
+    public void setup() {
+        userServiceConverter = new com.blueforce.user.config.SecurityConfig().jwtAuthConverter();
+        gatewayConverter = new com.blueforce.api_gateway.config.SecurityConfig().reactiveJwtAuthConverter();
+
+        Instant now = Instant.now();
+        jwt = Jwt.withTokenValue("benchmark-token")
+                .header("alg", "RS256")
+                .header("kid", "key-1")
+                .subject("volunteer@blueforce.org")
+                .issuer("blueforce-auth-service")
+                .claim("role", role)
+                .issuedAt(now)
+                .expiresAt(now.plusSeconds(3600))
+                .build();
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken userService() {
+        return userServiceConverter.convert(jwt);
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken gateway() {
+        // the adapter completes synchronously, so block() only unwraps the value
+        return gatewayConverter.convert(jwt).block();
+    }
+}
@@ -0,0 +1,85 @@
+package com.blueforce.benchmarks.user;
+
+import com.blueforce.user.util.RankedScores;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The leaderboard's {@link RankedScores} at realistic sizes: top-10 page, "my rank" and a
+ * points update, against {@code rankByScan}, the linear pass a rank costs without an
+ * ordered structure (what COUNT(*) WHERE points > ? does on an unindexed column).
+ * {@code load} is the startup rebuild from scanned columns.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class LeaderboardBenchmark {
+
+    private static final int MAX_POINTS = 10_000;
+
+    @Param({"100000", "1000000"})
+    public int participants;
+
+    private long[] ids;
+    private int[] points;
+    private RankedScores board;
+    private SplittableRandom random;
+
+    @Setup
+    public void setup() {
+        random = new SplittableRandom(42);
+        ids = new long[participants];
+        points = new int[participants];
+        for (int i = 0; i < participants; i++) {
+            ids[i] = i + 1;
+            points[i] = random.nextInt(MAX_POINTS);
+        }
+        board = new RankedScores(participants);
+        board.load(ids, points, participants);
+    }
+
+    @Benchmark
+    public List<RankedScores.Entry> top10() {
+        return board.page(1, 10);
+    }
+
+    @Benchmark
+    public RankedScores.Entry myRank() {
+        return board.get(1 + random.nextInt(participants));
+    }
+
+    @Benchmark
+    public void awardPoints() {
+        int i = random.nextInt(participants);
+        points[i] += 1 + random.nextInt(10);
+        board.put(ids[i], points[i]);
+    }
+
+    @Benchmark
+    public int rankByScan() {
+        int i = random.nextInt(participants);
+        int mine = points[i];
+        int ahead = 0;
+        for (int j = 0; j < participants; j++) {
+            if (points[j] > mine || (points[j] == mine && ids[j] < ids[i])) ahead++;
+        }
+        return ahead + 1;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public RankedScores load() {
+        RankedScores fresh = new RankedScores(16);
+        fresh.load(ids, points, participants);
+        return fresh;
+    }
+}
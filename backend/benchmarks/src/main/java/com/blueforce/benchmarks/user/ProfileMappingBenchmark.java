@@ -0,0 +1,100 @@
+package com.blueforce.benchmarks.user;
+
+import com.blueforce.user.dto.profile.AdminProfileDto;
+import com.blueforce.user.dto.profile.NgoProfileDto;
+import com.blueforce.user.dto.profile.ParticipantProfileDto;
+import com.blueforce.user.entity.User;
+import com.blueforce.user.repository.UserRepository;
+import com.blueforce.user.service.ProfileCache;
+import com.blueforce.user.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link UserService#getUserProfile} without the database, called with the token's uid and role as
+ * the controller does. The repository is a stub answering the projection queries, so this is
+ * the service's own overhead; see ProfileQueryBenchmark for the queries themselves.
+ * {@code getUserProfile} invalidates the profile cache first (miss path);
+ * {@code getUserProfileCached} is the hit path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProfileMappingBenchmark {
+
+    @Param({"ADMIN", "NGO", "PARTICIPANT", "VOLUNTEER"})
+    public String role;
+
+    private UserService userService;
+    private ProfileCache profileCache;
+    private String email;
+    private Long userId;
+
+    @Setup
+    public void setup() throws Exception {
+        User user = User.builder()
+                .id(42L)
+                .email(role.toLowerCase() + "@blueforce.org")
+                .role(role)
+                .name("Asha Rao")
+                .phone("+91-9800000000")
+                .address("12 Marine Drive, Mumbai")
+                .organizationName("Blue Shores Trust")
+                .contactPerson("Asha Rao")
+                .active(true)
+                .points(120)
+                .build();
+        email = user.getEmail();
+        userId = user.getId();
+
+        // the projection queries build a fresh DTO per call, so the stub does too
+        UserRepository repository = (UserRepository) Proxy.newProxyInstance(
+                UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findByEmail" -> Optional.of(user);
+                    case "findRoleByEmail" -> Optional.of(user.getRole());
+                    case "findAdminProfile", "findAdminProfileByAuthUserId" -> Optional.of(new AdminProfileDto(
+                            user.getId(), user.getEmail(), user.getRole(), user.getName(), user.getPhone()));
+                    case "findNgoProfile", "findNgoProfileByAuthUserId" -> Optional.of(new NgoProfileDto(
+                            user.getId(), user.getEmail(), user.getRole(), user.getOrganizationName(),
+                            user.getContactPerson(), user.getPhone(), user.getAddress()));
+                    case "findParticipantProfile", "findParticipantProfileByAuthUserId" -> Optional.of(new ParticipantProfileDto(
+                            user.getId(), user.getEmail(), user.getRole(), user.getName(),
+                            user.getPhone(), user.getAddress(), user.getPoints()));
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+
+        profileCache = new ProfileCache(new SimpleMeterRegistry(), 10_000, 300);
+
+        // UserService uses field injection, so set its collaborators the way Spring would
+        userService = new UserService();
+        inject("userRepository", repository);
+        inject("profileCache", profileCache);
+    }
+
+    private void inject(String fieldName, Object value) throws ReflectiveOperationException {
+        Field field = UserService.class.getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(userService, value);
+    }
+
+    @Benchmark
+    public Object getUserProfile() {
+        profileCache.invalidate(email);
+        return userService.getUserProfile(email, userId, role);
+    }
+
+    @Benchmark
+    public Object getUserProfileCached() {
+        return userService.getUserProfile(email, userId, role);
+    }
+}
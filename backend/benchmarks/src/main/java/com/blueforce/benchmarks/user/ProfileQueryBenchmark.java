@@ -0,0 +1,205 @@
+package com.blueforce.benchmarks.user;
+
+import com.blueforce.user.dto.profile.AdminProfileDto;
+import com.blueforce.user.dto.profile.NgoProfileDto;
+import com.blueforce.user.dto.profile.ParticipantProfileDto;
+import com.blueforce.user.entity.User;
+import com.blueforce.user.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Profile rows/sec through the real JPA stack (Hibernate + Spring Data, on in-memory H2):
+ * the previous read path (findByEmail loads a managed User, then maps it) against the
+ * role-specific constructor projections UserService uses now. One op is one request.
+ *
+ * The update pair does the same for a profile edit: {@code updateLoadSave} is the old
+ * findByEmail + save (SELECT, then merge writes every column), {@code patch} is the
+ * targeted COALESCE UPDATE followed by the projection read-back. Each repository call
+ * runs in its own transaction, as it does in the service.
+ *
+ * Run with {@code -prof gc} for allocation per request (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProfileQueryBenchmark {
+
+    private static final int USERS = 10_000;
+    private static final long AUTH_ID_OFFSET = 1_000_000; // auth ids need not match users.id
+
+    @Param({"ADMIN", "NGO", "PARTICIPANT"})
+    public String role;
+
+    private LocalContainerEntityManagerFactoryBean factoryBean;
+    private UserRepository userRepository;
+    private TransactionTemplate transactionTemplate;
+    private String[] emails;
+    private long[] authIds;
+    private int next;
+
+    @Setup
+    public void setup() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:profile-bench-" + role + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+
+        Properties jpaProperties = new Properties();
+        jpaProperties.put("hibernate.hbm2ddl.auto", "create-drop");
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan("com.blueforce.user.entity");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaProperties(jpaProperties);
+        factoryBean.afterPropertiesSet();
+        EntityManagerFactory emf = factoryBean.getObject();
+
+        seed(emf);
+
+        // Outside a transaction the shared EntityManager opens and closes one per call,
+        // like a repository call from a request thread without open-in-view
+        EntityManager shared = SharedEntityManagerCreator.createSharedEntityManager(emf);
+        userRepository = new JpaRepositoryFactory(shared).getRepository(UserRepository.class);
+        transactionTemplate = new TransactionTemplate(new JpaTransactionManager(emf));
+    }
+
+    private void seed(EntityManagerFactory emf) {
+        emails = new String[USERS];
+        authIds = new long[USERS];
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        for (int i = 0; i < USERS; i++) {
+            emails[i] = "user" + i + "@blueforce.org";
+            User user = User.builder()
+                    .email(emails[i])
+                    .authUserId(AUTH_ID_OFFSET + i)
+                    .role(role)
+                    .name("User " + i)
+                    .phone("+91-98000" + String.format("%05d", i))
+                    .address(i + " Marine Drive, Mumbai")
+                    .organizationName("Blue Shores Trust " + i)
+                    .contactPerson("Contact " + i)
+                    .active(true)
+                    .createdAt(LocalDateTime.now())
+                    .points(i % 500)
+                    .build();
+            em.persist(user);
+            authIds[i] = AUTH_ID_OFFSET + i;
+            if (i % 1000 == 999) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.getTransaction().commit();
+        em.close();
+    }
+
+    @TearDown
+    public void tearDown() {
+        factoryBean.destroy();
+    }
+
+    private String nextEmail() {
+        String email = emails[next];
+        next = next + 1 == emails.length ? 0 : next + 1;
+        return email;
+    }
+
+    // auth_user_id of the user nextEmail() returned last
+    private long currentAuthId() {
+        return authIds[next == 0 ? authIds.length - 1 : next - 1];
+    }
+
+    // The read path before the projections: whole entity, then the role switch
+    @Benchmark
+    public Object entityLoad() {
+        User user = userRepository.findByEmail(nextEmail()).orElseThrow();
+        return switch (role) {
+            case "ADMIN" -> new AdminProfileDto(
+                    user.getId(), user.getEmail(), user.getRole(),
+                    user.getName(), user.getPhone());
+            case "NGO" -> new NgoProfileDto(
+                    user.getId(), user.getEmail(), user.getRole(),
+                    user.getOrganizationName(), user.getContactPerson(),
+                    user.getPhone(), user.getAddress());
+            default -> new ParticipantProfileDto(
+                    user.getId(), user.getEmail(), user.getRole(),
+                    user.getName(), user.getPhone(), user.getAddress(), user.getPoints());
+        };
+    }
+
+    @Benchmark
+    public Object projection() {
+        String email = nextEmail();
+        return switch (role) {
+            case "ADMIN" -> userRepository.findAdminProfile(email).orElseThrow();
+            case "NGO" -> userRepository.findNgoProfile(email).orElseThrow();
+            default -> userRepository.findParticipantProfile(email).orElseThrow();
+        };
+    }
+
+    // Same projections by auth_user_id, as for tokens that carry the uid claim
+    @Benchmark
+    public Object projectionById() {
+        String email = nextEmail();
+        long authId = currentAuthId();
+        return switch (role) {
+            case "ADMIN" -> userRepository.findAdminProfileByAuthUserId(authId, email).orElseThrow();
+            case "NGO" -> userRepository.findNgoProfileByAuthUserId(authId, email).orElseThrow();
+            default -> userRepository.findParticipantProfileByAuthUserId(authId, email).orElseThrow();
+        };
+    }
+
+    @Benchmark
+    public Object updateLoadSave() {
+        String email = nextEmail();
+        User user = transactionTemplate.execute(status -> userRepository.findByEmail(email).orElseThrow());
+        user.setPhone("+91-97000" + next);
+        User saved = transactionTemplate.execute(status -> userRepository.save(user));
+        return switch (role) {
+            case "ADMIN" -> new AdminProfileDto(
+                    saved.getId(), saved.getEmail(), saved.getRole(),
+                    saved.getName(), saved.getPhone());
+            case "NGO" -> new NgoProfileDto(
+                    saved.getId(), saved.getEmail(), saved.getRole(),
+                    saved.getOrganizationName(), saved.getContactPerson(),
+                    saved.getPhone(), saved.getAddress());
+            default -> new ParticipantProfileDto(
+                    saved.getId(), saved.getEmail(), saved.getRole(),
+                    saved.getName(), saved.getPhone(), saved.getAddress(), saved.getPoints());
+        };
+    }
+
+    @Benchmark
+    public Object patch() {
+        String email = nextEmail();
+        String phone = "+91-97000" + next;
+        transactionTemplate.executeWithoutResult(status -> {
+            switch (role) {
+                case "ADMIN" -> userRepository.patchAdminProfile(email, null, phone);
+                case "NGO" -> userRepository.patchNgoProfile(email, null, null, phone, null);
+                default -> userRepository.patchParticipantProfile(email, null, phone, null);
+            }
+        });
+        return switch (role) {
+            case "ADMIN" -> userRepository.findAdminProfile(email).orElseThrow();
+            case "NGO" -> userRepository.findNgoProfile(email).orElseThrow();
+            default -> userRepository.findParticipantProfile(email).orElseThrow();
+        };
+    }
+}
@@ -0,0 +1,93 @@
+package com.blueforce.benchmarks.user;
+
+import com.blueforce.user.dto.AdminUserDto;
+import com.blueforce.user.repository.UserListingRepository;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One 100-row page of the admin user listing on H2, at increasing depth into a 200k-user
+ * table: {@code offsetPage} is LIMIT/OFFSET (reads and discards every row before the page),
+ * {@code keysetPage} is UserListingRepository's seek past the previous page's last id.
+ * Both use the PARTICIPANT + active filter the admin UI defaults to.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserListingBenchmark {
+
+    private static final int USERS = 200_000;
+    private static final int PAGE = 100;
+    private static final List<String> ROLES = List.of("PARTICIPANT", "VOLUNTEER");
+
+    @Param({"0", "1000", "190000"})
+    public int depth;
+
+    private JdbcTemplate jdbcTemplate;
+    private UserListingRepository userListingRepository;
+    private long afterId;
+
+    @Setup
+    public void setup() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:listing-bench-" + depth + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("""
+                CREATE TABLE users (
+                    id BIGINT AUTO_INCREMENT PRIMARY KEY, email VARCHAR(255) NOT NULL UNIQUE,
+                    role VARCHAR(255) NOT NULL, name VARCHAR(255), phone VARCHAR(255), address VARCHAR(255),
+                    organization_name VARCHAR(255), contact_person VARCHAR(255), points INT NOT NULL,
+                    active BOOLEAN NOT NULL, created_at TIMESTAMP, last_login TIMESTAMP)
+                """);
+        jdbcTemplate.execute("CREATE INDEX idx_users_role_active ON users (role, active, id)");
+        List<Object[]> rows = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            String role = i % 50 == 0 ? "NGO" : "PARTICIPANT";
+            rows.add(new Object[]{"user" + i + "@blueforce.org", role, "User " + i, "+91 98765 43210", i % 1000, i % 20 != 0});
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO users (email, role, name, phone, points, active, created_at)
+                VALUES (?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)
+                """, rows);
+        userListingRepository = new UserListingRepository(jdbcTemplate);
+
+        // the id the previous page ended on, as a client paging through would pass it
+        List<Long> before = jdbcTemplate.queryForList("""
+                SELECT id FROM users WHERE role IN ('PARTICIPANT', 'VOLUNTEER') AND active = TRUE
+                ORDER BY id LIMIT 1 OFFSET ?
+                """, Long.class, Math.max(0, depth - 1));
+        afterId = depth == 0 || before.isEmpty() ? 0 : before.get(0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Benchmark
+    public List<AdminUserDto> keysetPage() {
+        return userListingRepository.page(ROLES, true, afterId, PAGE);
+    }
+
+    @Benchmark
+    public List<AdminUserDto> offsetPage() {
+        return jdbcTemplate.query("""
+                SELECT id, email, role, name, phone, address, organization_name, contact_person,
+                       points, active, created_at, last_login
+                FROM users WHERE role IN ('PARTICIPANT', 'VOLUNTEER') AND active = TRUE
+                ORDER BY id LIMIT ? OFFSET ?
+                """, (rs, rowNum) -> new AdminUserDto(rs.getLong(1), rs.getString(2), rs.getString(3),
+                        rs.getString(4), rs.getString(5), rs.getString(6), rs.getString(7), rs.getString(8),
+                        rs.getInt(9), rs.getBoolean(10), rs.getTimestamp(11).toLocalDateTime(), null),
+                PAGE, depth);
+    }
+}
@@ -0,0 +1,96 @@
+package com.blueforce.benchmarks.user;
+
+import com.blueforce.user.util.TrigramIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The name search's {@link TrigramIndex} over generated person and organisation names:
+ * a two-letter word prefix, a substring inside words, a two-word query and a misspelt one
+ * (fuzzy fallback), top 10 each, against {@code likeScan}, the pass over the names that
+ * LIKE '%q%' costs for the two-word query. {@code reindex} is one refresh after a name change.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class UserSearchBenchmark {
+
+    private static final String[] FIRST = {"Aarav", "Ananya", "Rohan", "Priya", "José", "Maria", "Lukas", "Chloé",
+            "Kwame", "Amara", "Wei", "Mei", "Olivia", "Noah", "Fatima", "Omar", "Sofia", "Mateo", "Ingrid", "Yuki"};
+    private static final String[] LAST = {"Sharma", "Patel", "García", "Müller", "Okafor", "Chen", "Nakamura", "Silva",
+            "Johansson", "Haddad", "Kowalski", "Dubois", "Rossi", "Mensah", "O'Brien", "Fernández", "Ivanova", "Singh"};
+    private static final String[] ORG = {"Blue", "Ocean", "Green", "Earth", "Clean", "Coast", "River", "Reef", "Tide",
+            "Shore", "Marine", "Wave", "Harbour", "Delta", "Lagoon", "Current"};
+    private static final String[] SUFFIX = {"Foundation", "Trust", "Collective", "Alliance", "Society", "Initiative"};
+    private static final int NGO_EVERY = 20;
+
+    @Param({"100000", "1000000"})
+    public int users;
+
+    private String[] normalized;
+    private TrigramIndex index;
+    private SplittableRandom random;
+
+    @Setup
+    public void setup() {
+        random = new SplittableRandom(42);
+        index = new TrigramIndex(users);
+        normalized = new String[users];
+        for (int i = 0; i < users; i++) {
+            String name = pick(FIRST) + " " + pick(LAST) + " " + (i % 997);
+            if (i % NGO_EVERY == 0) {
+                String org = pick(ORG) + " " + pick(ORG) + " " + pick(SUFFIX) + " " + (i % 389);
+                index.put(i + 1, 1, org, name, name);
+                normalized[i] = TrigramIndex.normalize(org) + " | " + TrigramIndex.normalize(name);
+            } else {
+                index.put(i + 1, 0, name);
+                normalized[i] = TrigramIndex.normalize(name);
+            }
+        }
+    }
+
+    @Benchmark
+    public long[] wordPrefix() {
+        return index.search("ok", TrigramIndex.ANY_KIND, 10);
+    }
+
+    @Benchmark
+    public long[] substring() {
+        return index.search("kowa", TrigramIndex.ANY_KIND, 10);
+    }
+
+    @Benchmark
+    public long[] twoWords() {
+        return index.search("reef alliance 12", 1, 10);
+    }
+
+    @Benchmark
+    public long[] misspelt() {
+        return index.search("lagon colective", 1, 10);
+    }
+
+    // twoWords the LIKE way: every name until 10 matches, and they are rare
+    @Benchmark
+    public int likeScan() {
+        int found = 0;
+        for (String name : normalized) {
+            if (name.contains("reef alliance 12") && ++found == 10) break;
+        }
+        return found;
+    }
+
+    @Benchmark
+    public void reindex() {
+        long id = 1 + random.nextInt(users);
+        index.put(id, 0, pick(FIRST) + " " + pick(LAST) + " " + random.nextInt(1000));
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,91 @@
+package com.blueforce.benchmarks.waste;
+
+import com.blueforce.waste.service.ImageStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * One photo upload from the spooled multipart file to the image store. {@code streamed} is
+ * waste-service's {@link ImageStore#store}; {@code buffered} is what a whole-file handler
+ * does (MultipartFile.getBytes): read it all into a byte[], hash, write. Both hash and write
+ * every byte and end without a new file (the store sees a duplicate after the first op), so
+ * the difference is the copy strategy.
+ *
+ * Run with {@code -prof gc}: gc.alloc.rate.norm is the heap each upload costs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImageUploadBenchmark {
+
+    @Param({"262144", "4194304"})
+    public int imageBytes;
+
+    private Path dir;
+    private Path upload;
+    private Path scratch;
+    private ImageStore imageStore;
+
+    @Setup
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("image-upload-bench");
+        upload = dir.resolve("upload.jpg");
+        scratch = dir.resolve("buffered.tmp");
+        byte[] bytes = new byte[imageBytes];
+        new SplittableRandom(42).nextBytes(bytes);
+        bytes[0] = (byte) 0xFF; // JPEG signature
+        bytes[1] = (byte) 0xD8;
+        bytes[2] = (byte) 0xFF;
+        Files.write(upload, bytes);
+        imageStore = new ImageStore(dir.resolve("store").toString(), 65536, 4);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    @Benchmark
+    public ImageStore.StoredImage streamed() throws IOException {
+        // an InputStream, as MultipartFile.getInputStream hands it over
+        try (ReadableByteChannel channel = Channels.newChannel(Files.newInputStream(upload))) {
+            return imageStore.store(channel, Long.MAX_VALUE);
+        }
+    }
+
+    @Benchmark
+    public String buffered() throws Exception {
+        byte[] bytes;
+        try (InputStream in = Files.newInputStream(upload)) {
+            bytes = in.readAllBytes();
+        }
+        String sha256 = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        Files.write(scratch, bytes);
+        Files.delete(scratch);
+        return sha256;
+    }
+}
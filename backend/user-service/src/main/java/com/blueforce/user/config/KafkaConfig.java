@@ -1,20 +1,37 @@
 package com.blueforce.user.config;
 
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import com.blueforce.user.dto.PointsAwardedEvent;
 import com.blueforce.user.dto.UserRegisteredEvent;
+import com.blueforce.user.service.PointsAggregator;
+import com.blueforce.user.service.PointsAwardListener;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -27,6 +44,32 @@ public class KafkaConfig {
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    // Upper bound on one listener batch, i.e. on the rows in one upsert statement
+    @Value("${user.events.max-poll-records:500}")
+    private int maxPollRecords;
+
+    // One consumer thread per partition of user-registered by default. With several replicas,
+    // set it to partitions / replicas; threads beyond the partition count just sit idle.
+    @Value("${user.events.concurrency:${kafka.user-registered.partitions:6}}")
+    private int concurrency;
+
+    // Awards per listener batch; they are summed per user, so this is not a statement size
+    @Value("${user.points.max-poll-records:1000}")
+    private int pointsMaxPollRecords;
+
+    @Value("${user.points.concurrency:${kafka.points-awarded.partitions:6}}")
+    private int pointsConcurrency;
+
+    @Value("${kafka.points-awarded.partitions:6}")
+    private int pointsPartitions;
+
+    @Value("${kafka.points-awarded.replicas:1}")
+    private short pointsReplicas;
+
+    // Boot only applies spring.threads.virtual.enabled to its own listener factory, not this one
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
     @Bean
     public ConsumerFactory<String, UserRegisteredEvent> consumerFactory() {
         Map<String, Object> configProps = new HashMap<>();
@@ -36,6 +79,7 @@ public class KafkaConfig {
         configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
         configProps.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class);
         configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        configProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
         // Restrict packages and set default type
         configProps.put(JsonDeserializer.TRUSTED_PACKAGES, "com.blueforce.user.dto");
         configProps.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
@@ -45,14 +89,83 @@ public class KafkaConfig {
                 new ErrorHandlingDeserializer<>(new JsonDeserializer<>(UserRegisteredEvent.class)));
     }
 
+    @Bean
+    public ConsumerFactory<String, PointsAwardedEvent> pointsConsumerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        configProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, pointsMaxPollRecords);
+        // offsets are committed by PointsAggregator after each flush, never by the client
+        configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+        return new DefaultKafkaConsumerFactory<>(configProps, new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(new JsonDeserializer<>(PointsAwardedEvent.class, false)));
+    }
+
+    // Awards come from other services; the consumer side owns the topic so it exists before they publish
+    @Bean
+    public NewTopic pointsAwardedTopic() {
+        return TopicBuilder.name(PointsAwardListener.POINTS_AWARDED_TOPIC)
+                .partitions(pointsPartitions)
+                .replicas(pointsReplicas)
+                .build();
+    }
+
+    // Dead letters carry either the raw bytes that failed to deserialize or an invalid event object
+    @Bean
+    public KafkaTemplate<String, Object> dltTemplate() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        DelegatingByTypeSerializer valueSerializer = new DelegatingByTypeSerializer(Map.of(
+                byte[].class, new ByteArraySerializer(),
+                UserRegisteredEvent.class, new JsonSerializer<>(),
+                PointsAwardedEvent.class, new JsonSerializer<>()));
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(configProps, new StringSerializer(), valueSerializer));
+    }
+
     @Bean
     public ConcurrentKafkaListenerContainerFactory<String, UserRegisteredEvent> kafkaListenerContainerFactory(KafkaTemplate<String, Object> dltTemplate) {
         ConcurrentKafkaListenerContainerFactory<String, UserRegisteredEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
-        // error handler with DLT
+        // one poll -> one List<ConsumerRecord> -> one upsert (UserEventListener)
+        factory.setBatchListener(true);
+        // events are keyed by email, so per-user order holds within each partition's thread
+        factory.setConcurrency(concurrency);
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor listenerExecutor = new SimpleAsyncTaskExecutor("kafka-listener-");
+            listenerExecutor.setVirtualThreads(true);
+            factory.getContainerProperties().setListenerTaskExecutor(listenerExecutor);
+        }
+        // error handler with DLT; BatchListenerFailedException pins the failure to one record
         DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(dltTemplate);
         DefaultErrorHandler errorHandler = new DefaultErrorHandler(recoverer);
+        // an event without email/role will not get better on retry
+        errorHandler.addNotRetryableExceptions(IllegalArgumentException.class);
         factory.setCommonErrorHandler(errorHandler);
         return factory;
     }
+
+    // Batch listener with MANUAL acks: PointsAggregator acknowledges a batch once its awards are flushed
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, PointsAwardedEvent> pointsListenerContainerFactory(PointsAggregator pointsAggregator) {
+        ConcurrentKafkaListenerContainerFactory<String, PointsAwardedEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(pointsConsumerFactory());
+        factory.setBatchListener(true);
+        factory.setConcurrency(pointsConcurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        // flush before giving partitions away, so the new owner starts after our committed awards
+        factory.getContainerProperties().setConsumerRebalanceListener(new ConsumerAwareRebalanceListener() {
+            @Override
+            public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+                pointsAggregator.flush();
+            }
+        });
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor listenerExecutor = new SimpleAsyncTaskExecutor("kafka-points-listener-");
+            listenerExecutor.setVirtualThreads(true);
+            factory.getContainerProperties().setListenerTaskExecutor(listenerExecutor);
+        }
+        return factory;
+    }
 }
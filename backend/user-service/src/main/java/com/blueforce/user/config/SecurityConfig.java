@@ -1,6 +1,8 @@
 package com.blueforce.user.config;
 
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
@@ -8,6 +10,7 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
@@ -23,7 +26,8 @@ import java.util.List;
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   @Value("${management.server.port:-1}") int managementPort) throws Exception {
         http
                 .csrf(csrf -> csrf.disable())
                 .exceptionHandling(ex -> ex
@@ -35,6 +39,11 @@ public class SecurityConfig {
                 )
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/users/**").authenticated()
+                        // actuator (health details, metrics, the Prometheus scrape) is only served on the
+                        // management port, which listens on loopback; /healthz stays public on the main port.
+                        // Should management.server.port ever be unset, actuator must not fall through to permitAll
+                        .requestMatchers(onManagementPort(managementPort, EndpointRequest.to("health", "metrics", "prometheus"))).permitAll()
+                        .requestMatchers(EndpointRequest.toAnyEndpoint()).denyAll()
                         .anyRequest().permitAll()
                 )
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -45,6 +54,11 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // Matches requests that arrived on management.server.port; never matches when it is unset
+    private static RequestMatcher onManagementPort(int managementPort, RequestMatcher endpoints) {
+        return request -> managementPort > 0 && request.getLocalPort() == managementPort && endpoints.matches(request);
+    }
+
     // Map "role" claim to ROLE_ authorities for method/URL checks
     @Bean
     public Converter<Jwt, AbstractAuthenticationToken> jwtAuthConverter() {
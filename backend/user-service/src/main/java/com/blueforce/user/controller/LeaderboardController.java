@@ -0,0 +1,38 @@
+package com.blueforce.user.controller;
+
+import com.blueforce.user.dto.LeaderboardEntryDto;
+import com.blueforce.user.service.Leaderboard;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/users/leaderboard")
+public class LeaderboardController {
+
+    private static final int MAX_LIMIT = 100;
+
+    @Autowired
+    private Leaderboard leaderboard;
+
+    // ✅ Top volunteers (page through with offset)
+    @GetMapping
+    public ResponseEntity<List<LeaderboardEntryDto>> top(@RequestParam(defaultValue = "PARTICIPANT") String role,
+                                                         @RequestParam(defaultValue = "0") int offset,
+                                                         @RequestParam(defaultValue = "10") int limit) {
+        if (offset < 0 || limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("offset must be >= 0 and limit between 1 and " + MAX_LIMIT);
+        }
+        return ResponseEntity.ok(leaderboard.top(role, offset, limit));
+    }
+
+    // ✅ My rank
+    @GetMapping("/me")
+    public ResponseEntity<LeaderboardEntryDto> myRank() {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        return ResponseEntity.ok(leaderboard.rankOf(email));
+    }
+}
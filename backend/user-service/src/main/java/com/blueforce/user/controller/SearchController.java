@@ -0,0 +1,30 @@
+package com.blueforce.user.controller;
+
+import com.blueforce.user.dto.UserSearchResultDto;
+import com.blueforce.user.service.UserSearch;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/users/search")
+public class SearchController {
+
+    private static final int MAX_LIMIT = 50;
+
+    @Autowired
+    private UserSearch userSearch;
+
+    // ✅ Find participants and NGOs by (part of) a name, e.g. ?q=green ear&role=NGO
+    @GetMapping
+    public ResponseEntity<List<UserSearchResultDto>> search(@RequestParam String q,
+                                                            @RequestParam(required = false) String role,
+                                                            @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        return ResponseEntity.ok(userSearch.search(q, role, limit));
+    }
+}
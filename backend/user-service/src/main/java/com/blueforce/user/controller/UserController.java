@@ -1,25 +1,47 @@
 package com.blueforce.user.controller;
 
+import com.blueforce.user.dto.UserPageDto;
 import com.blueforce.user.dto.profile.*;
+import com.blueforce.user.service.UserExporter;
 import com.blueforce.user.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+
     @Autowired
     private UserService userService;
 
-    // ✅ Get Profile (auto role-detection by service)
+    // ✅ Get Profile (auto role-detection by service; the token's uid and role are only query hints)
     @GetMapping("/me")
     public ResponseEntity<?> getCurrentUser() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        return ResponseEntity.ok(userService.getUserProfile(email));
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String roleHint = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .filter(authority -> authority.startsWith("ROLE_"))
+                .map(authority -> authority.substring("ROLE_".length()))
+                .findFirst()
+                .orElse(null);
+        Long userId = null;
+        if (authentication instanceof JwtAuthenticationToken jwtAuthentication
+                && jwtAuthentication.getToken().getClaim("uid") instanceof Number uid) {
+            userId = uid.longValue();
+        }
+        return ResponseEntity.ok(userService.getUserProfile(authentication.getName(), userId, roleHint));
     }
 
     // ✅ Update Profile (Admin)
@@ -31,6 +53,14 @@ public class UserController {
         return ResponseEntity.ok(updated);
     }
 
+    // ✅ Partial Update (Admin): only the fields present in the body are written
+    @PreAuthorize("hasRole('ADMIN')")
+    @PatchMapping("/me/admin")
+    public ResponseEntity<AdminProfileDto> patchAdmin(@RequestBody UpdateAdminProfileDto updateDto) {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        return ResponseEntity.ok(userService.patchAdminProfile(email, updateDto));
+    }
+
     // ✅ Update Profile (NGO)
     @PreAuthorize("hasRole('NGO')") // make sure role string matches how you set role in token (e.g., "NGO")
     @PutMapping("/me/ngo")
@@ -40,6 +70,14 @@ public class UserController {
         return ResponseEntity.ok(updated);
     }
 
+    // ✅ Partial Update (NGO)
+    @PreAuthorize("hasRole('NGO')")
+    @PatchMapping("/me/ngo")
+    public ResponseEntity<NgoProfileDto> patchNGO(@RequestBody UpdateNGOProfileDto updateDto) {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        return ResponseEntity.ok(userService.patchNGOProfile(email, updateDto));
+    }
+
     // ✅ Update Profile (Participant)
     @PreAuthorize("hasRole('PARTICIPANT')")
     @PutMapping("/me/participant")
@@ -49,6 +87,14 @@ public class UserController {
         return ResponseEntity.ok(updated);
     }
 
+    // ✅ Partial Update (Participant)
+    @PreAuthorize("hasRole('PARTICIPANT')")
+    @PatchMapping("/me/participant")
+    public ResponseEntity<ParticipantProfileDto> patchParticipant(@RequestBody UpdateParticipantProfileDto updateDto) {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        return ResponseEntity.ok(userService.patchParticipantProfile(email, updateDto));
+    }
+
     // ✅ Soft Delete Account
     @DeleteMapping("/me")
     public ResponseEntity<String> deleteAccount() {
@@ -56,4 +102,32 @@ public class UserController {
         userService.deactivateUser(email);
         return ResponseEntity.ok("Account deactivated successfully");
     }
+
+    // ✅ List Users (Admin): keyset pages in id order, next page with afterId = nextAfterId
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/admin/users")
+    public ResponseEntity<UserPageDto> listUsers(@RequestParam(required = false) String role,
+                                                 @RequestParam(required = false) Boolean active,
+                                                 @RequestParam(defaultValue = "0") long afterId,
+                                                 @RequestParam(defaultValue = "100") int limit) {
+        if (afterId < 0 || limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("afterId must be >= 0 and limit between 1 and " + MAX_PAGE_SIZE);
+        }
+        return ResponseEntity.ok(userService.listUsers(role, active, afterId, limit));
+    }
+
+    // ✅ Export Users (Admin): the whole filtered table as NDJSON or CSV, written as it is read
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/admin/users/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "ndjson") String format,
+                                                             @RequestParam(required = false) String role,
+                                                             @RequestParam(required = false) Boolean active) {
+        UserExporter.Format exportFormat = UserExporter.Format.parse(format);
+        StreamingResponseBody body = out -> userService.exportUsers(exportFormat, role, active, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("users." + exportFormat.extension).build().toString())
+                .body(body);
+    }
 }
@@ -0,0 +1,26 @@
+package com.blueforce.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// One users row as admins see it, in listing pages and exports
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminUserDto {
+    private Long id;
+    private String email;
+    private String role;
+    private String name;
+    private String phone;
+    private String address;
+    private String organizationName;
+    private String contactPerson;
+    private int points;
+    private boolean active;
+    private LocalDateTime createdAt;
+    private LocalDateTime lastLogin;
+}
@@ -0,0 +1,15 @@
+package com.blueforce.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardEntryDto {
+    private int rank;         // 1 = most points; ties go to the lower user id
+    private Long userId;
+    private String fullName;  // only filled in on leaderboard pages
+    private int points;
+}
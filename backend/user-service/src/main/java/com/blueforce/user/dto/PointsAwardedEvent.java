@@ -0,0 +1,18 @@
+package com.blueforce.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PointsAwardedEvent {
+    private String eventId;   // UUID chosen by the producer
+    private String email;     // users.email of the recipient (the token subject)
+    private int points;       // may be negative for corrections
+    private String reason;    // e.g. WASTE_LOG, EVENT_CHECK_IN
+    private long awardedAt;   // epoch millis
+}
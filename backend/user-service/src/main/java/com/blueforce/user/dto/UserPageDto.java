@@ -0,0 +1,15 @@
+package com.blueforce.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPageDto {
+    private List<AdminUserDto> users;
+    private Long nextAfterId; // pass as afterId for the next page; null on the last page
+}
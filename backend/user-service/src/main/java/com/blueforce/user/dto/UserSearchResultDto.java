@@ -0,0 +1,16 @@
+package com.blueforce.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSearchResultDto {
+    private Long userId;
+    private String role;              // PARTICIPANT or NGO
+    private String name;
+    private String organizationName;  // NGOs only
+    private String contactPerson;     // NGOs only
+}
@@ -0,0 +1,28 @@
+package com.blueforce.user.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Id of an event that has already been applied. Written in the same transaction as the
+ * change itself, so a redelivered or replayed event can be recognised and skipped.
+ */
+@Entity
+@Table(name = "processed_events", indexes = {
+        @Index(name = "idx_processed_events_at", columnList = "processedAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProcessedEvent {
+
+    @Id
+    @Column(length = 36)
+    private String eventId;
+
+    @Column(nullable = false)
+    private LocalDateTime processedAt;
+}
@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
-@Table(name = "users")
+// Filtered admin listing pages seek by id within one (role, active) key
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_role_active", columnList = "role, active, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -17,6 +20,10 @@ public class User {
     @Column(nullable = false, unique = true)
     private String email;
 
+    // auth_users.id (the token's uid claim); null for rows that predate it until they are linked
+    @Column(unique = true)
+    private Long authUserId;
+
     @Column(nullable = false)
     private String role; // ADMIN, NGO, PARTICIPANT
 
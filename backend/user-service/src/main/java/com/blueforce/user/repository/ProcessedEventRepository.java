@@ -0,0 +1,47 @@
+package com.blueforce.user.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Set-at-a-time JDBC access to processed_events (mapped by ProcessedEvent): one IN lookup
+ * and one batched insert per listener batch instead of a query per event.
+ */
+@Repository
+public class ProcessedEventRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProcessedEventRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<String> findExisting(Collection<String> eventIds) {
+        if (eventIds.isEmpty()) return List.of();
+        String placeholders = String.join(",", Collections.nCopies(eventIds.size(), "?"));
+        return jdbcTemplate.queryForList(
+                "SELECT event_id FROM processed_events WHERE event_id IN (" + placeholders + ")",
+                String.class, eventIds.toArray());
+    }
+
+    // INSERT IGNORE: a rebalance can hand the same event to two consumers; the second one is a no-op
+    public void insertAll(Collection<String> eventIds, LocalDateTime processedAt) {
+        if (eventIds.isEmpty()) return;
+        Timestamp at = Timestamp.valueOf(processedAt);
+        jdbcTemplate.batchUpdate("INSERT IGNORE INTO processed_events (event_id, processed_at) VALUES (?, ?)",
+                eventIds, eventIds.size(), (ps, eventId) -> {
+                    ps.setString(1, eventId);
+                    ps.setTimestamp(2, at);
+                });
+    }
+
+    public int deleteProcessedBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM processed_events WHERE processed_at < ?", Timestamp.valueOf(cutoff));
+    }
+}
@@ -0,0 +1,151 @@
+package com.blueforce.user.repository;
+
+import com.blueforce.user.dto.UserRegisteredEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Set-at-a-time writes to users keyed on the unique email column: the registration upsert
+ * below and the points flush ({@link #addPoints}).
+ *
+ * One INSERT ... ON DUPLICATE KEY UPDATE per listener batch replaces the per-record
+ * UPDATE-then-INSERT pair: new emails are inserted, existing rows get the new role and
+ * are re-activated, exactly what updateUserFields + save did one record at a time.
+ *
+ * The event's auth_users id goes into the unique auth_user_id column (the token's uid claim),
+ * never into the primary key, which stays AUTO_INCREMENT. An upsert only ever updates the
+ * row of its own email; if an auth id is still held by another email's row (only after an
+ * auth_users reset) the insert would be skipped, so rows missing afterwards take the id over
+ * and are inserted again in the same transaction.
+ */
+@Repository
+public class UserBulkRepository {
+
+    // VALUES(col) rather than the 8.0.19 row alias, so H2's MySQL mode (pipeline harness) accepts it too
+    private static final String INSERT_PREFIX =
+            "INSERT INTO users (auth_user_id, email, role, active, points, created_at) VALUES ";
+    private static final String ROW = "(?, ?, ?, ?, 0, ?)";
+    // The email check keeps an auth_user_id clash from touching another user's row; a null
+    // auth id (event from an older auth-service) keeps the stored one
+    private static final String ON_DUPLICATE = " ON DUPLICATE KEY UPDATE"
+            + " auth_user_id = CASE WHEN email = VALUES(email) THEN COALESCE(VALUES(auth_user_id), auth_user_id) ELSE auth_user_id END,"
+            + " role = CASE WHEN email = VALUES(email) THEN VALUES(role) ELSE role END,"
+            + " active = CASE WHEN email = VALUES(email) THEN VALUES(active) ELSE active END";
+    private static final int COLUMNS = 5;
+    private static final int POINTS_CHUNK = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserBulkRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Upserts the events in a single statement, checks that every email has its row, and
+     * returns the number of distinct emails written.
+     *
+     * Later events for the same email win, as they would have sequentially. Rows are sorted
+     * by email so concurrent consumers always take the unique-index locks in the same order.
+     */
+    public int upsertRegistered(Collection<UserRegisteredEvent> events) {
+        if (events.isEmpty()) return 0;
+
+        Map<String, UserRegisteredEvent> latest = new LinkedHashMap<>();
+        for (UserRegisteredEvent event : events) {
+            latest.put(event.getEmail(), event);
+        }
+        List<UserRegisteredEvent> rows = new ArrayList<>(latest.values());
+        rows.sort(Comparator.comparing(UserRegisteredEvent::getEmail));
+
+        insert(rows);
+        List<UserRegisteredEvent> skipped = missing(rows);
+        if (!skipped.isEmpty()) {
+            // their auth ids are held by other emails' rows: the newer registration takes them over
+            releaseAuthUserIds(skipped);
+            insert(skipped);
+            if (!missing(skipped).isEmpty()) {
+                throw new IllegalStateException("users rows still missing after releasing their auth ids");
+            }
+        }
+        return rows.size();
+    }
+
+    /**
+     * Adds summed point deltas, one UPDATE ... CASE statement per chunk of users, and returns
+     * the number of rows matched (emails without a users row are skipped). Emails are sorted so
+     * concurrent flushes lock rows in the same order. Run it inside a transaction so a failed
+     * chunk rolls back the whole flush.
+     */
+    public int addPoints(Map<String, Long> deltas) {
+        List<String> emails = new ArrayList<>(deltas.keySet());
+        emails.sort(Comparator.naturalOrder());
+        int matched = 0;
+        for (int from = 0; from < emails.size(); from += POINTS_CHUNK) {
+            List<String> chunk = emails.subList(from, Math.min(from + POINTS_CHUNK, emails.size()));
+            StringBuilder sql = new StringBuilder(64 + chunk.size() * 20)
+                    .append("UPDATE users SET points = points + CASE email");
+            Object[] args = new Object[chunk.size() * 3];
+            for (int i = 0; i < chunk.size(); i++) {
+                sql.append(" WHEN ? THEN ?");
+                args[i * 2] = chunk.get(i);
+                args[i * 2 + 1] = deltas.get(chunk.get(i));
+                args[chunk.size() * 2 + i] = chunk.get(i);
+            }
+            sql.append(" ELSE 0 END WHERE email IN (")
+                    .append(String.join(",", Collections.nCopies(chunk.size(), "?")))
+                    .append(')');
+            matched += jdbcTemplate.update(sql.toString(), args);
+        }
+        return matched;
+    }
+
+    private void insert(List<UserRegisteredEvent> rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows.size() * (ROW.length() + 1) + ON_DUPLICATE.length())
+                .append(INSERT_PREFIX);
+        Object[] args = new Object[rows.size() * COLUMNS];
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int i = 0; i < rows.size(); i++) {
+            if (i > 0) sql.append(',');
+            sql.append(ROW);
+            UserRegisteredEvent event = rows.get(i);
+            int a = i * COLUMNS;
+            args[a] = event.getId();
+            args[a + 1] = event.getEmail();
+            args[a + 2] = event.getRole();
+            args[a + 3] = true;
+            args[a + 4] = now;
+        }
+        sql.append(ON_DUPLICATE);
+        jdbcTemplate.update(sql.toString(), args);
+    }
+
+    // Events whose email has no users row after the insert
+    private List<UserRegisteredEvent> missing(List<UserRegisteredEvent> rows) {
+        String placeholders = String.join(",", Collections.nCopies(rows.size(), "?"));
+        Set<String> present = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT email FROM users WHERE email IN (" + placeholders + ")", String.class,
+                rows.stream().map(UserRegisteredEvent::getEmail).toArray()));
+        return rows.stream().filter(event -> !present.contains(event.getEmail())).toList();
+    }
+
+    private void releaseAuthUserIds(List<UserRegisteredEvent> rows) {
+        List<Long> ids = rows.stream().map(UserRegisteredEvent::getId).filter(Objects::nonNull).toList();
+        if (ids.isEmpty()) return;
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        jdbcTemplate.update("UPDATE users SET auth_user_id = NULL WHERE auth_user_id IN (" + placeholders + ")",
+                ids.toArray());
+    }
+}
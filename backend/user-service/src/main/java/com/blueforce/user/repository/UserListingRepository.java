@@ -0,0 +1,101 @@
+package com.blueforce.user.repository;
+
+import com.blueforce.user.dto.AdminUserDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Admin listing and export of users with plain JDBC, always in id order. Pages seek past the
+ * last id instead of using OFFSET, so page n costs the same as page 1; the export is one
+ * forward-only query that hands rows over as they arrive.
+ */
+@Repository
+public class UserListingRepository {
+
+    private static final String COLUMNS = """
+            SELECT id, email, role, name, phone, address, organization_name, contact_person,
+                   points, active, created_at, last_login
+            FROM users
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserListingRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Up to {@code limit} users with id > afterId, in id order; null filters match everything.
+     * With roles, each (role, active) pair is one seek on idx_users_role_active and the runs
+     * are merged here: a single IN (...) query could not return them in id order without
+     * sorting every matching row. Without roles it walks the primary key.
+     */
+    public List<AdminUserDto> page(Collection<String> roles, Boolean active, long afterId, int limit) {
+        if (roles == null || roles.isEmpty()) {
+            return active == null
+                    ? jdbcTemplate.query(COLUMNS + " WHERE id > ? ORDER BY id LIMIT ?",
+                            (rs, rowNum) -> map(rs), afterId, limit)
+                    : jdbcTemplate.query(COLUMNS + " WHERE id > ? AND active = ? ORDER BY id LIMIT ?",
+                            (rs, rowNum) -> map(rs), afterId, active, limit);
+        }
+        List<AdminUserDto> merged = new ArrayList<>();
+        for (String role : roles) {
+            for (boolean activeValue : active == null ? new boolean[]{true, false} : new boolean[]{active}) {
+                // ORDER BY the whole index key (same order as id here) so H2 reads it sorted too
+                merged.addAll(jdbcTemplate.query(
+                        COLUMNS + " WHERE role = ? AND active = ? AND id > ? ORDER BY role, active, id LIMIT ?",
+                        (rs, rowNum) -> map(rs), role, activeValue, afterId, limit));
+            }
+        }
+        merged.sort(Comparator.comparingLong(AdminUserDto::getId));
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+
+    // Integer.MIN_VALUE makes MySQL Connector/J stream rows instead of buffering the table
+    public void forEach(Collection<String> roles, Boolean active, int fetchSize, Consumer<AdminUserDto> consumer) {
+        List<Object> args = new ArrayList<>();
+        String sql = COLUMNS + " WHERE 1 = 1" + filters(roles, active, args) + " ORDER BY id";
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+            return ps;
+        }, (ResultSet rs) -> consumer.accept(map(rs)));
+    }
+
+    private static String filters(Collection<String> roles, Boolean active, List<Object> args) {
+        StringBuilder sql = new StringBuilder();
+        if (roles != null && !roles.isEmpty()) {
+            sql.append(" AND role IN (").append(String.join(",", Collections.nCopies(roles.size(), "?"))).append(')');
+            args.addAll(roles);
+        }
+        if (active != null) {
+            sql.append(" AND active = ?");
+            args.add(active);
+        }
+        return sql.toString();
+    }
+
+    private static AdminUserDto map(ResultSet rs) throws SQLException {
+        Timestamp createdAt = rs.getTimestamp(11);
+        Timestamp lastLogin = rs.getTimestamp(12);
+        return new AdminUserDto(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                rs.getString(5), rs.getString(6), rs.getString(7), rs.getString(8),
+                rs.getInt(9), rs.getBoolean(10),
+                createdAt == null ? null : createdAt.toLocalDateTime(),
+                lastLogin == null ? null : lastLogin.toLocalDateTime());
+    }
+}
@@ -1,5 +1,8 @@
 package com.blueforce.user.repository;
 
+import com.blueforce.user.dto.profile.AdminProfileDto;
+import com.blueforce.user.dto.profile.NgoProfileDto;
+import com.blueforce.user.dto.profile.ParticipantProfileDto;
 import com.blueforce.user.entity.User;
 import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -12,6 +15,64 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
+    // Profile read paths: constructor projections select only the columns each DTO needs
+    // and return unmanaged DTOs, so nothing lands in the persistence context
+    @Query("SELECT u.role FROM User u WHERE u.email = :email")
+    Optional<String> findRoleByEmail(@Param("email") String email);
+
+    @Query("""
+           SELECT new com.blueforce.user.dto.profile.AdminProfileDto(
+                u.id, u.email, u.role, u.name, u.phone)
+           FROM User u WHERE u.email = :email
+           """)
+    Optional<AdminProfileDto> findAdminProfile(@Param("email") String email);
+
+    @Query("""
+           SELECT new com.blueforce.user.dto.profile.NgoProfileDto(
+                u.id, u.email, u.role, u.organizationName, u.contactPerson, u.phone, u.address)
+           FROM User u WHERE u.email = :email
+           """)
+    Optional<NgoProfileDto> findNgoProfile(@Param("email") String email);
+
+    @Query("""
+           SELECT new com.blueforce.user.dto.profile.ParticipantProfileDto(
+                u.id, u.email, u.role, u.name, u.phone, u.address, u.points)
+           FROM User u WHERE u.email = :email
+           """)
+    Optional<ParticipantProfileDto> findParticipantProfile(@Param("email") String email);
+
+    // Same projections by auth_users id (the token's uid claim). The email must match too, so a
+    // stale link can never serve another user's profile
+    @Query("""
+           SELECT new com.blueforce.user.dto.profile.AdminProfileDto(
+                u.id, u.email, u.role, u.name, u.phone)
+           FROM User u WHERE u.authUserId = :authUserId AND u.email = :email
+           """)
+    Optional<AdminProfileDto> findAdminProfileByAuthUserId(@Param("authUserId") Long authUserId,
+                                                           @Param("email") String email);
+
+    @Query("""
+           SELECT new com.blueforce.user.dto.profile.NgoProfileDto(
+                u.id, u.email, u.role, u.organizationName, u.contactPerson, u.phone, u.address)
+           FROM User u WHERE u.authUserId = :authUserId AND u.email = :email
+           """)
+    Optional<NgoProfileDto> findNgoProfileByAuthUserId(@Param("authUserId") Long authUserId,
+                                                       @Param("email") String email);
+
+    @Query("""
+           SELECT new com.blueforce.user.dto.profile.ParticipantProfileDto(
+                u.id, u.email, u.role, u.name, u.phone, u.address, u.points)
+           FROM User u WHERE u.authUserId = :authUserId AND u.email = :email
+           """)
+    Optional<ParticipantProfileDto> findParticipantProfileByAuthUserId(@Param("authUserId") Long authUserId,
+                                                                       @Param("email") String email);
+
+    // Links a row that has no auth_users id yet (it predates the column) to the token's uid
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.authUserId = :authUserId WHERE u.email = :email AND u.authUserId IS NULL")
+    int linkAuthUserId(@Param("email") String email, @Param("authUserId") Long authUserId);
+
     @Modifying
     @Transactional
     @Query("""
@@ -23,4 +84,86 @@ public interface UserRepository extends JpaRepository<User, Long> {
     int updateUserFields(@Param("email") String email,
                          @Param("role") String role,
                          @Param("active") boolean active);
-}
\ No newline at end of file
+
+    // Profile writes: one UPDATE of the role's own columns, so role/active written by the
+    // registration listener are never overwritten with a stale copy. The replace* variants
+    // back PUT (absent fields are cleared); patch* back PATCH (absent fields are kept).
+    // Return the number of matched rows: 0 = no such user.
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.name = :name, u.phone = :phone WHERE u.email = :email")
+    int replaceAdminProfile(@Param("email") String email,
+                            @Param("name") String name,
+                            @Param("phone") String phone);
+
+    @Modifying
+    @Transactional
+    @Query("""
+           UPDATE User u SET
+                u.name = COALESCE(:name, u.name),
+                u.phone = COALESCE(:phone, u.phone)
+           WHERE u.email = :email
+           """)
+    int patchAdminProfile(@Param("email") String email,
+                          @Param("name") String name,
+                          @Param("phone") String phone);
+
+    @Modifying
+    @Transactional
+    @Query("""
+           UPDATE User u SET
+                u.organizationName = :organizationName,
+                u.contactPerson = :contactPerson,
+                u.phone = :phone,
+                u.address = :address
+           WHERE u.email = :email
+           """)
+    int replaceNgoProfile(@Param("email") String email,
+                          @Param("organizationName") String organizationName,
+                          @Param("contactPerson") String contactPerson,
+                          @Param("phone") String phone,
+                          @Param("address") String address);
+
+    @Modifying
+    @Transactional
+    @Query("""
+           UPDATE User u SET
+                u.organizationName = COALESCE(:organizationName, u.organizationName),
+                u.contactPerson = COALESCE(:contactPerson, u.contactPerson),
+                u.phone = COALESCE(:phone, u.phone),
+                u.address = COALESCE(:address, u.address)
+           WHERE u.email = :email
+           """)
+    int patchNgoProfile(@Param("email") String email,
+                        @Param("organizationName") String organizationName,
+                        @Param("contactPerson") String contactPerson,
+                        @Param("phone") String phone,
+                        @Param("address") String address);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.name = :name, u.phone = :phone, u.address = :address WHERE u.email = :email")
+    int replaceParticipantProfile(@Param("email") String email,
+                                  @Param("name") String name,
+                                  @Param("phone") String phone,
+                                  @Param("address") String address);
+
+    @Modifying
+    @Transactional
+    @Query("""
+           UPDATE User u SET
+                u.name = COALESCE(:name, u.name),
+                u.phone = COALESCE(:phone, u.phone),
+                u.address = COALESCE(:address, u.address)
+           WHERE u.email = :email
+           """)
+    int patchParticipantProfile(@Param("email") String email,
+                                @Param("name") String name,
+                                @Param("phone") String phone,
+                                @Param("address") String address);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.active = false WHERE u.email = :email")
+    int deactivateByEmail(@Param("email") String email);
+}
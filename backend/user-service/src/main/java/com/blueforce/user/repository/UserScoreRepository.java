@@ -0,0 +1,65 @@
+package com.blueforce.user.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * The columns the leaderboard ranks by, read with plain JDBC: a streaming scan for the
+ * startup rebuild and set-at-a-time lookups for incremental refreshes.
+ */
+@Repository
+public class UserScoreRepository {
+
+    public record UserScore(long id, String email, String role, int points, boolean active) {}
+
+    private static final String COLUMNS = "SELECT id, email, role, points, active FROM users";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserScoreRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Integer.MIN_VALUE makes MySQL Connector/J stream rows instead of buffering the table
+    public void forEachActive(int fetchSize, Consumer<UserScore> consumer) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(COLUMNS + " WHERE active = true",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            return ps;
+        }, (ResultSet rs) -> consumer.accept(map(rs)));
+    }
+
+    public List<UserScore> findByEmails(Collection<String> emails) {
+        if (emails.isEmpty()) return List.of();
+        String placeholders = String.join(",", Collections.nCopies(emails.size(), "?"));
+        return jdbcTemplate.query(COLUMNS + " WHERE email IN (" + placeholders + ")",
+                (rs, rowNum) -> map(rs), emails.toArray());
+    }
+
+    public Map<Long, String> findNames(Collection<Long> ids) {
+        if (ids.isEmpty()) return Map.of();
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        Map<Long, String> names = new HashMap<>(ids.size() * 2);
+        jdbcTemplate.query("SELECT id, name FROM users WHERE id IN (" + placeholders + ")",
+                (ResultSet rs) -> {
+                    names.put(rs.getLong(1), rs.getString(2));
+                },
+                ids.toArray());
+        return names;
+    }
+
+    private static UserScore map(ResultSet rs) throws SQLException {
+        return new UserScore(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getInt(4), rs.getBoolean(5));
+    }
+}
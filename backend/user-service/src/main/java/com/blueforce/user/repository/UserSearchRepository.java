@@ -0,0 +1,62 @@
+package com.blueforce.user.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The searchable name columns, read with plain JDBC: a streaming scan for the startup build
+ * of the search index, set-at-a-time lookups for refreshes and for rendering hits.
+ */
+@Repository
+public class UserSearchRepository {
+
+    public record SearchableUser(long id, String email, String role, boolean active,
+                                 String name, String organizationName, String contactPerson) {}
+
+    private static final String COLUMNS =
+            "SELECT id, email, role, active, name, organization_name, contact_person FROM users";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserSearchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Integer.MIN_VALUE makes MySQL Connector/J stream rows instead of buffering the table
+    public void forEachActive(int fetchSize, Consumer<SearchableUser> consumer) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(COLUMNS + " WHERE active = true",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            return ps;
+        }, (ResultSet rs) -> consumer.accept(map(rs)));
+    }
+
+    public List<SearchableUser> findByEmails(Collection<String> emails) {
+        return findBy("email", emails);
+    }
+
+    public List<SearchableUser> findByIds(Collection<Long> ids) {
+        return findBy("id", ids);
+    }
+
+    private List<SearchableUser> findBy(String column, Collection<?> keys) {
+        if (keys.isEmpty()) return List.of();
+        String placeholders = String.join(",", Collections.nCopies(keys.size(), "?"));
+        return jdbcTemplate.query(COLUMNS + " WHERE " + column + " IN (" + placeholders + ")",
+                (rs, rowNum) -> map(rs), keys.toArray());
+    }
+
+    private static SearchableUser map(ResultSet rs) throws SQLException {
+        return new SearchableUser(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getBoolean(4),
+                rs.getString(5), rs.getString(6), rs.getString(7));
+    }
+}
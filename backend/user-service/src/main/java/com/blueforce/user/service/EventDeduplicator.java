@@ -0,0 +1,127 @@
+package com.blueforce.user.service;
+
+import com.blueforce.user.dto.UserRegisteredEvent;
+import com.blueforce.user.repository.ProcessedEventRepository;
+import com.blueforce.user.util.RecentIdCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Skips events that were already applied.
+ *
+ * Lookups go to an in-memory {@link RecentIdCache} first, which absorbs redeliveries after
+ * rebalances and retries without touching the DB. Ids it does not know are checked against
+ * processed_events in one IN query per batch, which covers restarts and a fresh consumer
+ * group replaying the topic. Events without a (UUID) event id predate this and are always
+ * applied; the upsert they feed is idempotent anyway.
+ */
+@Component
+public class EventDeduplicator {
+
+    private final ProcessedEventRepository processedEventRepository;
+    private final RecentIdCache recentIds;
+    private final Duration retention;
+
+    private final Counter cacheHits;
+    private final Counter storeHits;
+
+    public EventDeduplicator(ProcessedEventRepository processedEventRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${user.events.dedupe.cache-size:100000}") int cacheSize,
+                             @Value("${user.events.dedupe.retention-days:30}") long retentionDays) {
+        this.processedEventRepository = processedEventRepository;
+        this.recentIds = new RecentIdCache(cacheSize);
+        this.retention = Duration.ofDays(retentionDays);
+
+        this.cacheHits = Counter.builder("user.events.duplicates")
+                .tag("source", "cache")
+                .description("Events skipped because they were already applied")
+                .register(meterRegistry);
+        this.storeHits = Counter.builder("user.events.duplicates")
+                .tag("source", "store")
+                .description("Events skipped because they were already applied")
+                .register(meterRegistry);
+        Gauge.builder("user.events.dedupe.cache.size", recentIds, RecentIdCache::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the events not seen before, in their original order. Repeats of an id inside
+     * the batch are dropped too.
+     */
+    public List<UserRegisteredEvent> unseen(List<UserRegisteredEvent> events) {
+        List<UserRegisteredEvent> candidates = new ArrayList<>(events.size());
+        Set<UUID> inBatch = new HashSet<>();
+        Map<String, UUID> toCheck = new HashMap<>();
+        for (UserRegisteredEvent event : events) {
+            UUID id = eventId(event);
+            if (id == null) {
+                candidates.add(event);
+                continue;
+            }
+            if (!inBatch.add(id) || recentIds.contains(id)) {
+                cacheHits.increment();
+                continue;
+            }
+            candidates.add(event);
+            toCheck.put(event.getEventId(), id);
+        }
+        if (toCheck.isEmpty()) return candidates;
+
+        Set<String> processed = new HashSet<>(processedEventRepository.findExisting(toCheck.keySet()));
+        if (processed.isEmpty()) return candidates;
+
+        List<UserRegisteredEvent> fresh = new ArrayList<>(candidates.size());
+        for (UserRegisteredEvent event : candidates) {
+            if (event.getEventId() != null && processed.contains(event.getEventId())) {
+                // known to the store but not to this instance yet
+                recentIds.add(toCheck.get(event.getEventId()));
+                storeHits.increment();
+            } else {
+                fresh.add(event);
+            }
+        }
+        return fresh;
+    }
+
+    // Must run in the transaction that applies the events
+    public void markProcessed(List<UserRegisteredEvent> events) {
+        List<String> ids = events.stream()
+                .filter(event -> eventId(event) != null)
+                .map(UserRegisteredEvent::getEventId)
+                .toList();
+        processedEventRepository.insertAll(ids, LocalDateTime.now());
+    }
+
+    // Call after the transaction commits, so a rolled-back batch is not remembered
+    public void remember(List<UserRegisteredEvent> events) {
+        for (UserRegisteredEvent event : events) {
+            UUID id = eventId(event);
+            if (id != null) recentIds.add(id);
+        }
+    }
+
+    // Ids are kept well past the topic's retention, after which no replay can bring them back
+    @Scheduled(cron = "${user.events.dedupe.purge-cron:0 30 * * * *}")
+    public void purgeExpired() {
+        processedEventRepository.deleteProcessedBefore(LocalDateTime.now().minus(retention));
+    }
+
+    private static UUID eventId(UserRegisteredEvent event) {
+        String id = event.getEventId();
+        if (id == null || id.length() != 36) return null;
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
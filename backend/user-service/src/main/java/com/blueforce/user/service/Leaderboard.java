@@ -0,0 +1,178 @@
+package com.blueforce.user.service;
+
+import com.blueforce.user.dto.LeaderboardEntryDto;
+import com.blueforce.user.repository.UserScoreRepository;
+import com.blueforce.user.repository.UserScoreRepository.UserScore;
+import com.blueforce.user.util.RankedScores;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Points leaderboards, one {@link RankedScores} per ranked role (PARTICIPANT by default),
+ * answering top-K pages and "my rank" from memory in O(log n + k).
+ *
+ * Built by a streaming scan of active users after startup (the endpoints answer 503 until
+ * it has loaded), then kept in sync by {@link #refresh} from every write path that can change
+ * a user's role, points or active flag: registration events, the points flush, deactivation.
+ * Loading and refresh ordering are {@link RefreshableView}'s.
+ */
+@Component
+public class Leaderboard {
+
+    private final UserScoreRepository userScoreRepository;
+    private final int fetchSize;
+
+    // keys fixed at construction; boards are guarded by lock
+    private final Map<String, RankedScores> boards = new LinkedHashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RefreshableView<UserScore> view;
+
+    public Leaderboard(UserScoreRepository userScoreRepository,
+                       MeterRegistry meterRegistry,
+                       @Value("${user.leaderboard.roles:PARTICIPANT}") List<String> roles,
+                       @Value("${user.leaderboard.fetch-size:-2147483648}") int fetchSize) {
+        this.userScoreRepository = userScoreRepository;
+        this.fetchSize = fetchSize;
+        this.view = new RefreshableView<>("Leaderboard", userScoreRepository::findByEmails, this::applyAll);
+        for (String role : roles) {
+            String key = normalizeRole(role);
+            RankedScores board = new RankedScores(1024);
+            boards.put(key, board);
+            Gauge.builder("user.leaderboard.size", this, l -> l.size(key))
+                    .tag("role", key)
+                    .description("Active users ranked on the leaderboard")
+                    .register(meterRegistry);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        view.warmUp(() -> {
+            Map<String, ScoreBuffer> buffers = new HashMap<>();
+            boards.keySet().forEach(role -> buffers.put(role, new ScoreBuffer()));
+            userScoreRepository.forEachActive(fetchSize, row -> {
+                ScoreBuffer buffer = buffers.get(normalizeRole(row.role()));
+                if (buffer != null) buffer.add(row.id(), row.points());
+            });
+            return changed -> {
+                lock.writeLock().lock();
+                try {
+                    buffers.forEach((role, buffer) -> boards.get(role).load(buffer.ids, buffer.scores, buffer.count));
+                    changed.forEach(this::apply);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            };
+        });
+    }
+
+    // Re-reads the given users and moves them to their current board and points; call after commit
+    public void refresh(Collection<String> emails) {
+        view.refresh(emails);
+    }
+
+    /** Page of the role's leaderboard, best first; {@code offset} is 0-based. */
+    public List<LeaderboardEntryDto> top(String role, int offset, int limit) {
+        RankedScores board = requireBoard(role);
+        List<RankedScores.Entry> page;
+        lock.readLock().lock();
+        try {
+            page = board.page(offset + 1, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+        Map<Long, String> names = userScoreRepository.findNames(page.stream().map(RankedScores.Entry::id).toList());
+        return page.stream()
+                .map(e -> new LeaderboardEntryDto(e.rank(), e.id(), names.get(e.id()), e.score()))
+                .toList();
+    }
+
+    public LeaderboardEntryDto rankOf(String email) {
+        UserScore user = userScoreRepository.findByEmails(List.of(email)).stream().findFirst()
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        RankedScores board = requireBoard(user.role());
+        RankedScores.Entry entry;
+        lock.readLock().lock();
+        try {
+            entry = board.get(user.id());
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (entry == null) {
+            throw new RuntimeException("User not found on the leaderboard");
+        }
+        return new LeaderboardEntryDto(entry.rank(), entry.id(), null, entry.score());
+    }
+
+    private RankedScores requireBoard(String role) {
+        if (!view.isReady()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Leaderboard is still loading");
+        }
+        RankedScores board = boards.get(normalizeRole(role));
+        if (board == null) {
+            throw new IllegalArgumentException("No leaderboard for role " + role);
+        }
+        return board;
+    }
+
+    private void applyAll(List<UserScore> rows) {
+        lock.writeLock().lock();
+        try {
+            rows.forEach(this::apply);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock
+    private void apply(UserScore row) {
+        RankedScores target = row.active() ? boards.get(normalizeRole(row.role())) : null;
+        for (RankedScores board : boards.values()) {
+            if (board == target) {
+                board.put(row.id(), row.points());
+            } else {
+                board.remove(row.id());
+            }
+        }
+    }
+
+    private int size(String role) {
+        lock.readLock().lock();
+        try {
+            return boards.get(role).size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Same normalisation as profiles: upper-case, VOLUNTEER ranks with PARTICIPANT
+    private static String normalizeRole(String role) {
+        String normalized = role == null ? "" : role.trim().toUpperCase(Locale.ROOT);
+        return "VOLUNTEER".equals(normalized) ? "PARTICIPANT" : normalized;
+    }
+
+    // Growable (id, points) columns for the startup scan
+    private static final class ScoreBuffer {
+        long[] ids = new long[1024];
+        int[] scores = new int[1024];
+        int count;
+
+        void add(long id, int score) {
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+                scores = Arrays.copyOf(scores, count * 2);
+            }
+            ids[count] = id;
+            scores[count++] = score;
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.blueforce.user.service;
+
+import com.blueforce.user.dto.PointsAwardedEvent;
+import com.blueforce.user.repository.UserBulkRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Sums point awards per user in memory and writes them to users in periodic batched flushes,
+ * so a busy cleanup drive costs one UPDATE per user per flush instead of one per award.
+ *
+ * Awards land in striped per-user accumulators (one lock per stripe, picked by email hash),
+ * together with the Kafka acknowledgment of the batch they came from. A flush takes a
+ * consistent cut under the write side of {@code epoch}: every pending delta plus every
+ * acknowledgment whose deltas are in that cut. Offsets are acknowledged, in arrival order,
+ * only after the flush transaction commits; a failed flush puts everything back for the next
+ * one. A crash between commit and offset commit replays those awards: at-least-once.
+ *
+ * {@code user.points.max-pending-awards} bounds what is held in memory. When it is reached
+ * and the inline flush fails (the database is down), the points listener container is paused
+ * until a flush commits again; the records behind it stay in Kafka. At most one more listener
+ * batch per consumer thread arrives after the limit.
+ */
+@Component
+public class PointsAggregator {
+
+    private static final Logger logger = LoggerFactory.getLogger(PointsAggregator.class);
+
+    private final UserBulkRepository userBulkRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ProfileCache profileCache;
+    private final Leaderboard leaderboard;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final long maxPendingAwards;
+
+    private final Stripe[] stripes;
+    private final ReentrantReadWriteLock epoch = new ReentrantReadWriteLock();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ConcurrentLinkedDeque<Acknowledgment> pendingAcks = new ConcurrentLinkedDeque<>();
+    private final AtomicLong pendingAwards = new AtomicLong();
+    private volatile boolean consumerPaused;
+
+    private final Counter awards;
+    private final Counter unmatched;
+    private final Counter failures;
+    private final DistributionSummary flushSize;
+    private final Timer flushDuration;
+    private final Timer flushLag;
+
+    public PointsAggregator(UserBulkRepository userBulkRepository,
+                            TransactionTemplate transactionTemplate,
+                            ProfileCache profileCache,
+                            Leaderboard leaderboard,
+                            KafkaListenerEndpointRegistry listenerRegistry,
+                            MeterRegistry meterRegistry,
+                            @Value("${user.points.stripes:16}") int stripeCount,
+                            @Value("${user.points.max-pending-awards:50000}") long maxPendingAwards) {
+        this.userBulkRepository = userBulkRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.profileCache = profileCache;
+        this.leaderboard = leaderboard;
+        this.listenerRegistry = listenerRegistry;
+        this.maxPendingAwards = maxPendingAwards;
+        this.stripes = new Stripe[Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+
+        this.awards = Counter.builder("user.points.awards")
+                .description("Point awards accepted into the accumulators")
+                .register(meterRegistry);
+        this.unmatched = Counter.builder("user.points.unmatched")
+                .description("Flushed users without a users row (their points are dropped)")
+                .register(meterRegistry);
+        this.failures = Counter.builder("user.points.flush.failures")
+                .description("Flushes rolled back and retried with the next one")
+                .register(meterRegistry);
+        this.flushSize = DistributionSummary.builder("user.points.flush.size")
+                .description("Users updated per flush")
+                .register(meterRegistry);
+        this.flushDuration = Timer.builder("user.points.flush.duration")
+                .description("Time to write one flush, commit included")
+                .register(meterRegistry);
+        this.flushLag = Timer.builder("user.points.flush.lag")
+                .description("Age of the oldest award in a flush when it commits")
+                .register(meterRegistry);
+        Gauge.builder("user.points.pending.awards", pendingAwards, AtomicLong::get)
+                .description("Awards accumulated since the last flush")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Adds a listener batch. The acknowledgment is held until a flush that includes these
+     * awards has committed. Flushes inline once too many awards are pending, which also
+     * slows the consumer down when the database falls behind, and pauses the consumer if
+     * that flush fails.
+     */
+    public void add(List<PointsAwardedEvent> batch, Acknowledgment acknowledgment) {
+        epoch.readLock().lock();
+        try {
+            for (PointsAwardedEvent award : batch) {
+                stripeFor(award.getEmail()).add(award.getEmail(), award.getPoints(), 1, award.getAwardedAt());
+            }
+            pendingAcks.addLast(acknowledgment);
+            pendingAwards.addAndGet(batch.size());
+        } finally {
+            epoch.readLock().unlock();
+        }
+        awards.increment(batch.size());
+        if (pendingAwards.get() >= maxPendingAwards && !flushPending()) {
+            pauseConsumer();
+        }
+    }
+
+    // Also called on partition revocation, before the container commits queued acks
+    @Scheduled(fixedDelayString = "${user.points.flush-interval-ms:1000}")
+    public void flush() {
+        if (flushPending() && consumerPaused) {
+            resumeConsumer();
+        }
+    }
+
+    // False if the write failed and everything went back to the accumulators
+    private boolean flushPending() {
+        flushLock.lock();
+        try {
+            Map<String, Pending> drained = new HashMap<>();
+            List<Acknowledgment> acks = new ArrayList<>();
+            epoch.writeLock().lock();
+            try {
+                for (Stripe stripe : stripes) {
+                    stripe.drainTo(drained);
+                }
+                Acknowledgment ack;
+                while ((ack = pendingAcks.pollFirst()) != null) {
+                    acks.add(ack);
+                }
+                pendingAwards.set(0);
+            } finally {
+                epoch.writeLock().unlock();
+            }
+            if (drained.isEmpty() && acks.isEmpty()) return true;
+
+            if (!drained.isEmpty() && !write(drained)) {
+                requeue(drained, acks);
+                return false;
+            }
+            // ✅ offsets move only after the points they carried are committed
+            acks.forEach(Acknowledgment::acknowledge);
+
+            List<String> emails = new ArrayList<>(drained.keySet());
+            profileCache.invalidateAll(emails);
+            leaderboard.refresh(emails);
+            return true;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // The container pauses before its next poll; assignments and heartbeats are kept
+    private void pauseConsumer() {
+        MessageListenerContainer container = listenerRegistry.getListenerContainer(PointsAwardListener.LISTENER_ID);
+        if (container == null || consumerPaused) return;
+        consumerPaused = true;
+        container.pause();
+        logger.warn("Point awards reached the limit of {} and the flush failed; pausing the points-awarded consumer", maxPendingAwards);
+    }
+
+    private void resumeConsumer() {
+        MessageListenerContainer container = listenerRegistry.getListenerContainer(PointsAwardListener.LISTENER_ID);
+        consumerPaused = false;
+        if (container == null) return;
+        container.resume();
+        logger.info("Points flush committed; resuming the points-awarded consumer");
+    }
+
+    private boolean write(Map<String, Pending> drained) {
+        Map<String, Long> deltas = new HashMap<>(drained.size() * 2);
+        long oldest = Long.MAX_VALUE;
+        int awardCount = 0;
+        for (Map.Entry<String, Pending> entry : drained.entrySet()) {
+            Pending pending = entry.getValue();
+            if (pending.delta != 0) deltas.put(entry.getKey(), pending.delta);
+            oldest = Math.min(oldest, pending.oldestAwardAt);
+            awardCount += pending.awards;
+        }
+        long start = System.nanoTime();
+        try {
+            Integer matched = transactionTemplate.execute(status -> userBulkRepository.addPoints(deltas));
+            unmatched.increment(deltas.size() - (matched == null ? 0 : matched));
+        } catch (RuntimeException e) {
+            failures.increment();
+            logger.warn("Points flush of {} users failed; keeping them for the next flush", deltas.size(), e);
+            return false;
+        }
+        flushDuration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        flushSize.record(deltas.size());
+        if (oldest > 0 && oldest != Long.MAX_VALUE) {
+            flushLag.record(Math.max(0, System.currentTimeMillis() - oldest), TimeUnit.MILLISECONDS);
+        }
+        logger.debug("Flushed {} awards to {} users", awardCount, deltas.size());
+        return true;
+    }
+
+    // Older acks go back in front of anything that arrived during the failed flush
+    private void requeue(Map<String, Pending> drained, List<Acknowledgment> acks) {
+        epoch.writeLock().lock();
+        try {
+            long count = 0;
+            for (Map.Entry<String, Pending> entry : drained.entrySet()) {
+                Pending pending = entry.getValue();
+                stripeFor(entry.getKey()).add(entry.getKey(), pending.delta, pending.awards, pending.oldestAwardAt);
+                count += pending.awards;
+            }
+            for (int i = acks.size() - 1; i >= 0; i--) {
+                pendingAcks.addFirst(acks.get(i));
+            }
+            pendingAwards.addAndGet(count);
+        } finally {
+            epoch.writeLock().unlock();
+        }
+    }
+
+    private Stripe stripeFor(String email) {
+        int h = email.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (stripes.length - 1)];
+    }
+
+    private static final class Pending {
+        long delta;
+        int awards;
+        long oldestAwardAt = Long.MAX_VALUE;
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private Map<String, Pending> pending = new HashMap<>();
+
+        void add(String email, long delta, int awards, long awardedAt) {
+            lock.lock();
+            try {
+                Pending p = pending.computeIfAbsent(email, e -> new Pending());
+                p.delta += delta;
+                p.awards += awards;
+                p.oldestAwardAt = Math.min(p.oldestAwardAt, awardedAt);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Caller holds the epoch write lock, so no add() is running
+        void drainTo(Map<String, Pending> target) {
+            if (pending.isEmpty()) return;
+            target.putAll(pending);
+            pending = new HashMap<>();
+        }
+    }
+}
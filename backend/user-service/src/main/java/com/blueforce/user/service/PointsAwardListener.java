@@ -0,0 +1,78 @@
+package com.blueforce.user.service;
+
+import com.blueforce.user.dto.PointsAwardedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.log.LogAccessor;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Consumes points-awarded in batches and hands them to {@link PointsAggregator}, which
+ * acknowledges each batch once its awards are flushed (MANUAL ack mode, see KafkaConfig).
+ *
+ * Invalid records are published to the dead-letter topic right here rather than through the
+ * error handler: the error handler would commit offsets past awards that are not flushed yet.
+ */
+@Service
+public class PointsAwardListener {
+
+    public static final String POINTS_AWARDED_TOPIC = "points-awarded";
+    public static final String LISTENER_ID = "points-awarded-listener"; // PointsAggregator pauses it
+
+    private static final Logger logger = LoggerFactory.getLogger(PointsAwardListener.class);
+    private static final LogAccessor LOG_ACCESSOR = new LogAccessor(PointsAwardListener.class);
+
+    private final PointsAggregator pointsAggregator;
+    private final KafkaTemplate<String, Object> dltTemplate;
+    private final Counter rejected;
+
+    public PointsAwardListener(PointsAggregator pointsAggregator,
+                               KafkaTemplate<String, Object> dltTemplate,
+                               MeterRegistry meterRegistry) {
+        this.pointsAggregator = pointsAggregator;
+        this.dltTemplate = dltTemplate;
+        this.rejected = Counter.builder("user.points.rejected")
+                .description("Point awards sent to the dead-letter topic")
+                .register(meterRegistry);
+    }
+
+    @KafkaListener(id = LISTENER_ID, idIsGroup = false, topics = POINTS_AWARDED_TOPIC, groupId = "user-service-group",
+            containerFactory = "pointsListenerContainerFactory")
+    public void consume(List<ConsumerRecord<String, PointsAwardedEvent>> records, Acknowledgment acknowledgment) {
+        List<PointsAwardedEvent> awards = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, PointsAwardedEvent> record : records) {
+            PointsAwardedEvent award = record.value();
+            if (award == null || award.getEmail() == null || award.getEmail().isBlank()) {
+                deadLetter(record);
+                continue;
+            }
+            awards.add(award);
+        }
+        pointsAggregator.add(awards, acknowledgment);
+    }
+
+    private void deadLetter(ConsumerRecord<String, PointsAwardedEvent> record) {
+        Object value = record.value();
+        if (value == null) {
+            DeserializationException cause = SerializationUtils.getExceptionFromHeader(
+                    record, SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, LOG_ACCESSOR);
+            value = cause != null && cause.getData() != null ? cause.getData() : new byte[0];
+        }
+        logger.warn("Invalid points-awarded record at {}-{}@{}", record.topic(), record.partition(), record.offset());
+        // ✅ wait for the broker: the offset will be committed with the next flush
+        dltTemplate.send(new ProducerRecord<>(POINTS_AWARDED_TOPIC + "-dlt", record.key(), value)).join();
+        rejected.increment();
+    }
+}
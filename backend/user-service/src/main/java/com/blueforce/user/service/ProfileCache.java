@@ -0,0 +1,57 @@
+package com.blueforce.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * Built profile DTOs (Admin/Ngo/ParticipantProfileDto) keyed by email, for GET /api/users/me.
+ *
+ * Bounded by size and by time since write. Every write path in this instance invalidates
+ * the entry after its change has committed; the TTL bounds how long another replica can
+ * serve a profile changed elsewhere. Hit/miss counts are published as cache.gets{cache=user.profiles}
+ * plus a user.profile.cache.hit.ratio gauge.
+ */
+@Component
+public class ProfileCache {
+
+    static final String CACHE_NAME = "user.profiles";
+
+    private final Cache<String, Object> cache;
+
+    public ProfileCache(MeterRegistry meterRegistry,
+                        @Value("${user.profile-cache.max-size:100000}") long maxSize,
+                        @Value("${user.profile-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        Gauge.builder("user.profile.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Share of profile reads served from the cache since startup")
+                .register(meterRegistry);
+    }
+
+    // Concurrent misses for one email share a single load; a failed load is not cached
+    public Object get(String email, Function<String, Object> loader) {
+        return cache.get(email, loader);
+    }
+
+    public void invalidate(String email) {
+        cache.invalidate(email);
+    }
+
+    public void invalidateAll(Collection<String> emails) {
+        cache.invalidateAll(emails);
+    }
+}
@@ -0,0 +1,113 @@
+package com.blueforce.user.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Loading and refreshing for an in-memory view of users rows ({@link Leaderboard},
+ * {@link UserSearch}).
+ *
+ * {@link #warmUp} scans the table on a background thread and installs the result; a failed
+ * attempt (database not up yet, a dropped connection) is retried with exponential backoff
+ * until one succeeds, and the view is not {@linkplain #isReady ready} before that. After
+ * commits, write paths call {@link #refresh} with the affected emails: those rows are re-read
+ * and applied one refresh at a time, so a refresh that read later (and so saw later commits)
+ * is never overwritten by one that read earlier. Emails refreshed while a scan runs are
+ * re-read when it is installed, since the scan may have read those rows before they changed.
+ */
+final class RefreshableView<R> {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshableView.class);
+    private static final int REFRESH_CHUNK = 1000; // emails per IN lookup
+    private static final long FIRST_RETRY_MS = 1_000;
+    private static final long MAX_RETRY_MS = 60_000;
+
+    private final String name;
+    private final Function<List<String>, List<R>> findByEmails;
+    private final Consumer<List<R>> apply;
+
+    // held from a refresh's read to its apply; also guards pendingDuringWarmUp
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private Set<String> pendingDuringWarmUp = new HashSet<>();
+
+    private volatile boolean ready;
+
+    /**
+     * @param findByEmails current rows for up to 1000 emails (missing users are left out)
+     * @param apply        moves the given rows into the view; called with the refresh lock held
+     */
+    RefreshableView(String name, Function<List<String>, List<R>> findByEmails, Consumer<List<R>> apply) {
+        this.name = name;
+        this.findByEmails = findByEmails;
+        this.apply = apply;
+    }
+
+    /**
+     * Starts the background load. {@code scan} reads every row into a new structure without
+     * touching the live one, and returns the step that swaps it in; that step gets the rows
+     * refreshed in the meantime and must apply them on top.
+     */
+    void warmUp(Callable<Consumer<List<R>>> scan) {
+        Thread loader = new Thread(() -> {
+            long retryMs = FIRST_RETRY_MS;
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    long start = System.currentTimeMillis();
+                    Consumer<List<R>> install = scan.call();
+                    refreshLock.lock();
+                    try {
+                        install.accept(read(pendingDuringWarmUp));
+                        ready = true;
+                        pendingDuringWarmUp = null;
+                    } finally {
+                        refreshLock.unlock();
+                    }
+                    logger.info("{} loaded in {} ms (attempt {})", name, System.currentTimeMillis() - start, attempt);
+                    return;
+                } catch (Exception e) {
+                    logger.error("{} load failed (attempt {}); retrying in {} ms", name, attempt, retryMs, e);
+                }
+                try {
+                    Thread.sleep(retryMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                retryMs = Math.min(retryMs * 2, MAX_RETRY_MS);
+            }
+        }, name.toLowerCase(Locale.ROOT).replace(' ', '-') + "-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    // Re-reads the given users and applies them; call after commit
+    void refresh(Collection<String> emails) {
+        if (emails.isEmpty()) return;
+        refreshLock.lock();
+        try {
+            apply.accept(read(emails));
+            if (pendingDuringWarmUp != null) pendingDuringWarmUp.addAll(emails);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    boolean isReady() {
+        return ready;
+    }
+
+    private List<R> read(Collection<String> emails) {
+        List<String> all = new ArrayList<>(emails);
+        List<R> rows = new ArrayList<>(all.size());
+        for (int from = 0; from < all.size(); from += REFRESH_CHUNK) {
+            rows.addAll(findByEmails.apply(all.subList(from, Math.min(from + REFRESH_CHUNK, all.size()))));
+        }
+        return rows;
+    }
+}
@@ -1,52 +1,132 @@
 package com.blueforce.user.service;
 
 import com.blueforce.user.dto.UserRegisteredEvent;
-import com.blueforce.user.entity.User;
-import com.blueforce.user.repository.UserRepository;
+import com.blueforce.user.repository.UserBulkRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.log.LogAccessor;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Consumes user-registered events one poll at a time.
+ *
+ * Each batch becomes a single multi-row upsert (see {@link UserBulkRepository}). A record
+ * that cannot be applied (failed deserialization, missing email/role) splits the batch:
+ * the records before it are written, then BatchListenerFailedException tells the error
+ * handler to commit up to that offset and hand the bad record to the dead-letter recoverer.
+ * Events that were already applied are filtered out first by {@link EventDeduplicator}.
+ */
 @Service
 public class UserEventListener {
 
     private static final Logger logger = LoggerFactory.getLogger(UserEventListener.class);
+    private static final LogAccessor LOG_ACCESSOR = new LogAccessor(UserEventListener.class);
+
+    private final UserBulkRepository userBulkRepository;
+    private final EventDeduplicator eventDeduplicator;
+    private final TransactionTemplate transactionTemplate;
+    private final ProfileCache profileCache;
+    private final Leaderboard leaderboard;
+    private final UserSearch userSearch;
+    private final DistributionSummary batchSize;
+    private final Timer batchDuration;
+    private final Counter rejected;
 
-    @Autowired
-    private UserRepository userRepository;
+    public UserEventListener(UserBulkRepository userBulkRepository,
+                             EventDeduplicator eventDeduplicator,
+                             TransactionTemplate transactionTemplate,
+                             ProfileCache profileCache,
+                             Leaderboard leaderboard,
+                             UserSearch userSearch,
+                             MeterRegistry meterRegistry) {
+        this.userBulkRepository = userBulkRepository;
+        this.eventDeduplicator = eventDeduplicator;
+        this.transactionTemplate = transactionTemplate;
+        this.profileCache = profileCache;
+        this.leaderboard = leaderboard;
+        this.userSearch = userSearch;
+        this.batchSize = DistributionSummary.builder("user.events.batch.size")
+                .description("Records delivered per listener batch")
+                .register(meterRegistry);
+        this.batchDuration = Timer.builder("user.events.batch.duration")
+                .description("Time to apply one listener batch, upsert included")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("user.events.rejected")
+                .description("Records handed to the dead-letter recoverer")
+                .register(meterRegistry);
+    }
 
     @KafkaListener(topics = "user-registered", groupId = "user-service-group")
-    @Transactional
-    public void consume(UserRegisteredEvent event) {
+    public void consume(List<ConsumerRecord<String, UserRegisteredEvent>> records) {
+        batchSize.record(records.size());
+        Timer.Sample sample = Timer.start();
         try {
-            logger.info("Received user registration event: {}", event);
-
-            // Try to update existing user by email
-            int updated = userRepository.updateUserFields(
-                    event.getEmail(),
-                    event.getRole(),
-                    true
-            );
-
-            if (updated == 0) {
-                // No row updated → insert a new one
-                User user = new User();
-                user.setEmail(event.getEmail());
-                user.setRole(event.getRole());
-                user.setActive(true);
-
-                userRepository.save(user);
-                logger.info("Created new user with email: {}", event.getEmail());
-            } else {
-                logger.info("Updated existing user with email: {}", event.getEmail());
+            List<UserRegisteredEvent> events = new ArrayList<>(records.size());
+            for (int i = 0; i < records.size(); i++) {
+                ConsumerRecord<String, UserRegisteredEvent> record = records.get(i);
+                RuntimeException invalid = validate(record);
+                if (invalid != null) {
+                    // ✅ apply everything before the bad record, then let the error handler dead-letter it
+                    upsert(events);
+                    rejected.increment();
+                    throw new BatchListenerFailedException("Invalid user-registered event at "
+                            + record.topic() + "-" + record.partition() + "@" + record.offset(), invalid, i);
+                }
+                events.add(record.value());
             }
-        } catch (Exception e) {
-            logger.error("Error processing user registration event for user: {}", event.getEmail(), e);
-            // In a production environment, you might want to implement retry logic or dead letter queue
-            throw e; // Re-throw to trigger Kafka retry mechanism
+            upsert(events);
+        } finally {
+            sample.stop(batchDuration);
+        }
+    }
+
+    private void upsert(List<UserRegisteredEvent> events) {
+        if (events.isEmpty()) return;
+        List<UserRegisteredEvent> fresh = eventDeduplicator.unseen(events);
+        if (fresh.isEmpty()) {
+            logger.debug("Skipped {} already processed user-registered events", events.size());
+            return;
+        }
+        // ✅ the upsert and the processed-event ids commit together
+        Integer written = transactionTemplate.execute(status -> {
+            int rows = userBulkRepository.upsertRegistered(fresh);
+            eventDeduplicator.markProcessed(fresh);
+            return rows;
+        });
+        eventDeduplicator.remember(fresh);
+        // an upsert can change role/active of an existing profile
+        List<String> emails = fresh.stream().map(UserRegisteredEvent::getEmail).toList();
+        profileCache.invalidateAll(emails);
+        leaderboard.refresh(emails);
+        userSearch.refresh(emails);
+        logger.info("Upserted {} users from {} user-registered events ({} duplicates skipped)",
+                written, fresh.size(), events.size() - fresh.size());
+    }
+
+    // null = good record; otherwise the cause passed to the error handler (neither kind is retried)
+    private static RuntimeException validate(ConsumerRecord<String, UserRegisteredEvent> record) {
+        UserRegisteredEvent event = record.value();
+        if (event == null) {
+            DeserializationException cause = SerializationUtils.getExceptionFromHeader(
+                    record, SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, LOG_ACCESSOR);
+            return cause != null ? cause : new IllegalArgumentException("Empty user-registered event");
+        }
+        if (event.getEmail() == null || event.getEmail().isBlank() || event.getRole() == null) {
+            return new IllegalArgumentException("user-registered event without email or role: " + event);
         }
+        return null;
     }
 }
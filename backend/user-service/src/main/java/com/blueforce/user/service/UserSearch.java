@@ -0,0 +1,161 @@
+package com.blueforce.user.service;
+
+import com.blueforce.user.dto.UserSearchResultDto;
+import com.blueforce.user.repository.UserSearchRepository;
+import com.blueforce.user.repository.UserSearchRepository.SearchableUser;
+import com.blueforce.user.util.TrigramIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Name search over active participants (by name) and NGOs (by organisation name, contact
+ * person and name), answered from an in-memory {@link TrigramIndex} instead of
+ * LIKE '%q%' scans of users.
+ *
+ * Loaded and refreshed through a {@link RefreshableView}, like the {@link Leaderboard}
+ * (503 until loaded); {@link #refresh} is called from every write path that can change a
+ * name, role or active flag.
+ */
+@Component
+public class UserSearch {
+
+    private static final int PARTICIPANT = 0;
+    private static final int NGO = 1;
+    private static final List<String> KINDS = List.of("PARTICIPANT", "NGO"); // by kind
+
+    private final UserSearchRepository userSearchRepository;
+    private final int fetchSize;
+
+    // index is guarded by lock and swapped in by warmUp
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private TrigramIndex index = new TrigramIndex(16);
+    private final RefreshableView<SearchableUser> view;
+
+    public UserSearch(UserSearchRepository userSearchRepository,
+                      MeterRegistry meterRegistry,
+                      @Value("${user.search.fetch-size:-2147483648}") int fetchSize) {
+        this.userSearchRepository = userSearchRepository;
+        this.fetchSize = fetchSize;
+        this.view = new RefreshableView<>("Search index", userSearchRepository::findByEmails, this::applyAll);
+        Gauge.builder("user.search.size", this, UserSearch::size)
+                .description("Active participants and NGOs in the search index")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        view.warmUp(() -> {
+            TrigramIndex loaded = new TrigramIndex(1024);
+            userSearchRepository.forEachActive(fetchSize, row -> apply(loaded, row));
+            return changed -> {
+                changed.forEach(row -> apply(loaded, row));
+                lock.writeLock().lock();
+                try {
+                    index = loaded;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            };
+        });
+    }
+
+    // Re-reads the given users and re-indexes (or drops) them; call after commit
+    public void refresh(Collection<String> emails) {
+        view.refresh(emails);
+    }
+
+    /**
+     * Up to {@code limit} users whose names contain {@code query} (case and accents ignored),
+     * word-start matches first; a typo in a longer query still finds near matches.
+     * {@code role} is PARTICIPANT, NGO or null for both.
+     */
+    public List<UserSearchResultDto> search(String query, String role, int limit) {
+        if (!view.isReady()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Search index is still loading");
+        }
+        if (TrigramIndex.normalize(query).length() < TrigramIndex.MIN_QUERY_LENGTH) {
+            throw new IllegalArgumentException("q must have at least " + TrigramIndex.MIN_QUERY_LENGTH + " letters or digits");
+        }
+        int kind = role == null || role.isBlank() ? TrigramIndex.ANY_KIND : requireKind(role);
+        long[] hits;
+        lock.readLock().lock();
+        try {
+            hits = index.search(query, kind, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (hits.length == 0) return List.of();
+
+        List<Long> ids = new ArrayList<>(hits.length);
+        for (long id : hits) ids.add(id);
+        Map<Long, SearchableUser> rows = new HashMap<>(hits.length * 2);
+        userSearchRepository.findByIds(ids).forEach(row -> rows.put(row.id(), row));
+        List<UserSearchResultDto> results = new ArrayList<>(hits.length);
+        for (long id : hits) {
+            SearchableUser row = rows.get(id);
+            int rowKind = row == null || !row.active() ? -1 : kindOf(row.role());
+            if (rowKind < 0) continue; // changed since it was indexed; its refresh is on the way
+            boolean ngo = rowKind == NGO;
+            results.add(new UserSearchResultDto(row.id(), KINDS.get(rowKind), row.name(),
+                    ngo ? row.organizationName() : null, ngo ? row.contactPerson() : null));
+        }
+        return results;
+    }
+
+    private void applyAll(List<SearchableUser> rows) {
+        lock.writeLock().lock();
+        try {
+            rows.forEach(row -> apply(index, row));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock (or owns the index)
+    private static void apply(TrigramIndex target, SearchableUser row) {
+        int kind = row.active() ? kindOf(row.role()) : -1;
+        if (kind == PARTICIPANT) {
+            target.put(row.id(), kind, row.name());
+        } else if (kind == NGO) {
+            target.put(row.id(), kind, row.organizationName(), row.contactPerson(), row.name());
+        } else {
+            target.remove(row.id());
+        }
+    }
+
+    private int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static int requireKind(String role) {
+        int kind = kindOf(role);
+        if (kind < 0) {
+            throw new IllegalArgumentException("role must be PARTICIPANT or NGO");
+        }
+        return kind;
+    }
+
+    // Same normalisation as profiles: upper-case, VOLUNTEER searches with PARTICIPANT; -1 = not searchable
+    private static int kindOf(String role) {
+        String normalized = role == null ? "" : role.trim().toUpperCase(Locale.ROOT);
+        return switch (normalized) {
+            case "PARTICIPANT", "VOLUNTEER" -> PARTICIPANT;
+            case "NGO" -> NGO;
+            default -> -1;
+        };
+    }
+}
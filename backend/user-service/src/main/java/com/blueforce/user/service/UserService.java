@@ -1,102 +1,214 @@
 package com.blueforce.user.service;
 
+import com.blueforce.user.dto.AdminUserDto;
+import com.blueforce.user.dto.UserPageDto;
 import com.blueforce.user.dto.profile.*;
-import com.blueforce.user.entity.User;
+import com.blueforce.user.repository.UserListingRepository;
 import com.blueforce.user.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Optional;
+
 @Service
 public class UserService {
 
+    private static final Logger logger = LoggerFactory.getLogger(UserService.class);
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ProfileCache profileCache;
+
+    @Autowired
+    private Leaderboard leaderboard;
+
+    @Autowired
+    private UserSearch userSearch;
 
-    // ✅ Get Profile (role-specific)
+    @Autowired
+    private UserListingRepository userListingRepository;
+
+    @Autowired
+    private UserExporter userExporter;
+
+
+    // ✅ Get Profile (role-specific), served from the profile cache when possible
     public Object getUserProfile(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        return getUserProfile(email, null, null);
+    }
 
-        String role = user.getRole() == null ? "" : user.getRole().toUpperCase();
-        // Map VOLUNTEER to PARTICIPANT for now
-        if ("VOLUNTEER".equals(role)) {
-            role = "PARTICIPANT";
+    /**
+     * Same as {@link #getUserProfile(String)}, with the id and role from the caller's token as
+     * hints: when the role matches the stored one the profile is one narrow projection query,
+     * by auth_users id if the token carried a uid; otherwise the stored role is looked up first
+     * and wins.
+     */
+    public Object getUserProfile(String email, Long userId, String roleHint) {
+        return profileCache.get(email, key -> loadUserProfile(key, userId, roleHint));
+    }
+
+    private Object loadUserProfile(String email, Long userId, String roleHint) {
+        String hinted = normalizeRole(roleHint);
+        if (!hinted.isEmpty() && isProfileRole(hinted)) {
+            Optional<?> byAuthId = userId == null ? Optional.empty() : findProfileByAuthUserId(userId, email, hinted);
+            Object profile;
+            if (byAuthId.isPresent()) {
+                profile = byAuthId.get();
+            } else {
+                // no match by auth id: a users row from before auth_user_id, link it for next time
+                profile = findProfile(email, hinted).orElseThrow(() -> new RuntimeException("User not found"));
+                if (userId != null) linkAuthUserId(email, userId);
+            }
+            if (hinted.equals(normalizeRole(roleOf(profile)))) {
+                return profile;
+            }
+            // token is older than the stored role; fall through and trust the DB
+        }
+
+        String role = normalizeRole(userRepository.findRoleByEmail(email)
+                .orElseThrow(() -> new RuntimeException("User not found")));
+        if (!isProfileRole(role)) {
+            throw new RuntimeException("Unsupported role");
         }
+        return findProfile(email, role)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    private Optional<?> findProfile(String email, String role) {
+        return switch (role) {
+            case "ADMIN" -> userRepository.findAdminProfile(email);
+            case "NGO" -> userRepository.findNgoProfile(email);
+            case "PARTICIPANT" -> userRepository.findParticipantProfile(email);
+            default -> throw new RuntimeException("Unsupported role");
+        };
+    }
 
+    private Optional<?> findProfileByAuthUserId(Long authUserId, String email, String role) {
         return switch (role) {
-            case "ADMIN" -> new AdminProfileDto(
-                    user.getId(), user.getEmail(), user.getRole(),
-                    user.getName(), user.getPhone()
-            );
-            case "NGO" -> new NgoProfileDto(
-                    user.getId(), user.getEmail(), user.getRole(),
-                    user.getOrganizationName(), user.getContactPerson(),
-                    user.getPhone(), user.getAddress()
-            );
-            case "PARTICIPANT" -> new ParticipantProfileDto(
-                    user.getId(), user.getEmail(), user.getRole(),
-                    user.getName(), user.getPhone(), user.getAddress(), user.getPoints()
-            );
+            case "ADMIN" -> userRepository.findAdminProfileByAuthUserId(authUserId, email);
+            case "NGO" -> userRepository.findNgoProfileByAuthUserId(authUserId, email);
+            case "PARTICIPANT" -> userRepository.findParticipantProfileByAuthUserId(authUserId, email);
             default -> throw new RuntimeException("Unsupported role");
         };
     }
 
+    // Best effort: a uid still held by another row (only after an auth_users reset) stays unlinked
+    private void linkAuthUserId(String email, Long authUserId) {
+        try {
+            userRepository.linkAuthUserId(email, authUserId);
+        } catch (DataIntegrityViolationException e) {
+            logger.warn("auth_user_id {} is held by another users row; {} stays unlinked", authUserId, email);
+        }
+    }
+
+    private static boolean isProfileRole(String role) {
+        return role.equals("ADMIN") || role.equals("NGO") || role.equals("PARTICIPANT");
+    }
+
+    private static String roleOf(Object profile) {
+        return switch (profile) {
+            case AdminProfileDto admin -> admin.getRole();
+            case NgoProfileDto ngo -> ngo.getRole();
+            case ParticipantProfileDto participant -> participant.getRole();
+            default -> null;
+        };
+    }
+
+    // Upper-cased, with VOLUNTEER mapped to PARTICIPANT for now; null becomes ""
+    private static String normalizeRole(String role) {
+        String normalized = role == null ? "" : role.toUpperCase();
+        return "VOLUNTEER".equals(normalized) ? "PARTICIPANT" : normalized;
+    }
+
     // ✅ Update Profile (Admin only)
     public AdminProfileDto updateAdminProfile(String email, UpdateAdminProfileDto dto) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        user.setName(dto.getFullName());
-        user.setPhone(dto.getPhone());
+        requireUpdated(userRepository.replaceAdminProfile(email, dto.getFullName(), dto.getPhone()));
+        return readBack(email, userRepository.findAdminProfile(email));
+    }
 
-        User updatedUser = userRepository.save(user);
-        return new AdminProfileDto(
-                updatedUser.getId(), updatedUser.getEmail(), updatedUser.getRole(),
-                updatedUser.getName(), updatedUser.getPhone()
-        );
+    // ✅ Partial Update (Admin only): null fields keep their stored value
+    public AdminProfileDto patchAdminProfile(String email, UpdateAdminProfileDto dto) {
+        requireUpdated(userRepository.patchAdminProfile(email, dto.getFullName(), dto.getPhone()));
+        return readBack(email, userRepository.findAdminProfile(email));
     }
 
     // ✅ Update Profile (NGO only)
     public NgoProfileDto updateNGOProfile(String email, UpdateNGOProfileDto dto) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        user.setOrganizationName(dto.getOrganizationName());
-        user.setContactPerson(dto.getContactPerson());
-        user.setPhone(dto.getPhone());
-        user.setAddress(dto.getAddress());
+        requireUpdated(userRepository.replaceNgoProfile(email, dto.getOrganizationName(),
+                dto.getContactPerson(), dto.getPhone(), dto.getAddress()));
+        return readBack(email, userRepository.findNgoProfile(email));
+    }
 
-        User updatedUser = userRepository.save(user);
-        return new NgoProfileDto(
-                updatedUser.getId(), updatedUser.getEmail(), updatedUser.getRole(),
-                updatedUser.getOrganizationName(), updatedUser.getContactPerson(),
-                updatedUser.getPhone(), updatedUser.getAddress()
-        );
+    // ✅ Partial Update (NGO only)
+    public NgoProfileDto patchNGOProfile(String email, UpdateNGOProfileDto dto) {
+        requireUpdated(userRepository.patchNgoProfile(email, dto.getOrganizationName(),
+                dto.getContactPerson(), dto.getPhone(), dto.getAddress()));
+        return readBack(email, userRepository.findNgoProfile(email));
     }
 
     // ✅ Update Profile (Participant only)
     public ParticipantProfileDto updateParticipantProfile(String email, UpdateParticipantProfileDto dto) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        user.setName(dto.getFullName());
-        user.setPhone(dto.getPhone());
-        user.setAddress(dto.getAddress());
+        requireUpdated(userRepository.replaceParticipantProfile(email, dto.getFullName(),
+                dto.getPhone(), dto.getAddress()));
+        return readBack(email, userRepository.findParticipantProfile(email));
+    }
 
-        User updatedUser = userRepository.save(user);
-        return new ParticipantProfileDto(
-                updatedUser.getId(), updatedUser.getEmail(), updatedUser.getRole(),
-                updatedUser.getName(), updatedUser.getPhone(),
-                updatedUser.getAddress(), updatedUser.getPoints()
-        );
+    // ✅ Partial Update (Participant only)
+    public ParticipantProfileDto patchParticipantProfile(String email, UpdateParticipantProfileDto dto) {
+        requireUpdated(userRepository.patchParticipantProfile(email, dto.getFullName(),
+                dto.getPhone(), dto.getAddress()));
+        return readBack(email, userRepository.findParticipantProfile(email));
     }
 
     // ✅ Soft Delete
     public void deactivateUser(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        user.setActive(false);
-        userRepository.save(user);
+        requireUpdated(userRepository.deactivateByEmail(email));
+        profileCache.invalidate(email);
+        leaderboard.refresh(List.of(email));
+        userSearch.refresh(List.of(email));
+    }
+
+    // ✅ Admin listing: one page in id order after afterId (keyset, so deep pages stay cheap)
+    public UserPageDto listUsers(String role, Boolean active, long afterId, int limit) {
+        // one extra row tells whether another page follows
+        List<AdminUserDto> rows = userListingRepository.page(storedRoles(role), active, afterId, limit + 1);
+        if (rows.size() <= limit) {
+            return new UserPageDto(rows, null);
+        }
+        List<AdminUserDto> page = rows.subList(0, limit);
+        return new UserPageDto(List.copyOf(page), page.get(limit - 1).getId());
+    }
+
+    // ✅ Admin export: every matching user, streamed to out
+    public void exportUsers(UserExporter.Format format, String role, Boolean active, OutputStream out) throws IOException {
+        userExporter.export(format, storedRoles(role), active, out);
+    }
+
+    // Role filter as stored: PARTICIPANT also matches rows still saying VOLUNTEER; null = any role
+    private static List<String> storedRoles(String role) {
+        if (role == null || role.isBlank()) return null;
+        String normalized = normalizeRole(role.trim());
+        return "PARTICIPANT".equals(normalized) ? List.of("PARTICIPANT", "VOLUNTEER") : List.of(normalized);
+    }
+
+    private static void requireUpdated(int rows) {
+        if (rows == 0) {
+            throw new RuntimeException("User not found");
+        }
+    }
+
+    // New state after a write: drop the cached copy, re-index the names, return the fresh projection
+    private <T> T readBack(String email, Optional<T> profile) {
+        profileCache.invalidate(email);
+        userSearch.refresh(List.of(email));
+        return profile.orElseThrow(() -> new RuntimeException("User not found"));
     }
 }
@@ -0,0 +1,96 @@
+package com.blueforce.user.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing long -> int map (linear probing, backward-shift deletion) without boxing.
+ * Key 0 marks an empty slot and {@link #get}/{@link #remove} return 0 for a missing key,
+ * so keys must be non-zero and stored values should be too.
+ *
+ * Not thread-safe; callers guard it with a lock.
+ */
+final class LongIntMap {
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int count;
+
+    LongIntMap(int expected) {
+        allocate(Integer.highestOneBit(Math.max(2, expected * 2 - 1)) << 1);
+    }
+
+    int get(long key) {
+        int slot = find(key);
+        return slot < 0 ? 0 : values[slot];
+    }
+
+    void put(long key, int value) {
+        if ((count + 1) * 2 > keys.length) rehash();
+        int slot = home(key);
+        while (keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == 0) count++;
+        keys[slot] = key;
+        values[slot] = value;
+    }
+
+    int remove(long key) {
+        int hole = find(key);
+        if (hole < 0) return 0;
+        int value = values[hole];
+        int next = hole;
+        while (true) {
+            next = (next + 1) & mask;
+            if (keys[next] == 0) break;
+            int home = home(keys[next]);
+            boolean staysPut = hole <= next
+                    ? hole < home && home <= next
+                    : hole < home || home <= next;
+            if (staysPut) continue;
+            keys[hole] = keys[next];
+            values[hole] = values[next];
+            hole = next;
+        }
+        keys[hole] = 0;
+        count--;
+        return value;
+    }
+
+    void clear() {
+        Arrays.fill(keys, 0L);
+        count = 0;
+    }
+
+    private int find(long key) {
+        int slot = home(key);
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) return slot;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) put(oldKeys[i], oldValues[i]);
+        }
+    }
+
+    private void allocate(int slots) {
+        keys = new long[slots];
+        values = new int[slots];
+        mask = slots - 1;
+        count = 0;
+    }
+
+    private int home(long key) {
+        long h = key * 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+}
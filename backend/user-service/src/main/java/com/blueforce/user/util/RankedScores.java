@@ -0,0 +1,268 @@
+package com.blueforce.user.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Order-statistic set of (id, score) pairs ranked by score descending, ties by id ascending
+ * (the earlier registration ranks higher). put/remove/rank are O(log n); a page of k
+ * entries starting at any rank is O(log n + k).
+ *
+ * Implemented as a treap whose nodes live in parallel primitive arrays (subtree sizes give
+ * the ranks), with node priorities derived from the id hash so no random state is kept.
+ * An open-addressing id -> node index ({@link LongIntMap}) finds an entry's current score without a search.
+ * About 50 bytes per entry and no per-entry objects. Ids must be positive.
+ *
+ * Not thread-safe; callers guard it with a lock.
+ */
+public class RankedScores {
+
+    public record Entry(long id, int score, int rank) {}
+
+    private static final int NIL = 0; // node 0 is the empty subtree, size[0] stays 0
+
+    private long[] ids;
+    private int[] scores;
+    private int[] left;
+    private int[] right;
+    private int[] size;
+    private int root = NIL;
+    private int allocated = 1; // next never-used node
+    private int free = NIL;    // freed nodes, chained through left[]
+
+    private final LongIntMap index;
+
+    public RankedScores(int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity + 1);
+        ids = new long[capacity];
+        scores = new int[capacity];
+        left = new int[capacity];
+        right = new int[capacity];
+        size = new int[capacity];
+        index = new LongIntMap(capacity);
+    }
+
+    public int size() {
+        return size[root];
+    }
+
+    // Adds the id or moves it to its new score
+    public void put(long id, int score) {
+        if (id <= 0) throw new IllegalArgumentException("id must be positive");
+        int node = index.get(id);
+        if (node != NIL) {
+            if (scores[node] == score) return;
+            root = erase(root, node);
+        } else {
+            node = allocate(id);
+            index.put(id, node);
+        }
+        scores[node] = score;
+        left[node] = NIL;
+        right[node] = NIL;
+        size[node] = 1;
+        root = insert(root, node);
+    }
+
+    public boolean remove(long id) {
+        int node = index.remove(id);
+        if (node == NIL) return false;
+        root = erase(root, node);
+        left[node] = free;
+        free = node;
+        return true;
+    }
+
+    // null when the id is not ranked
+    public Entry get(long id) {
+        int node = index.get(id);
+        return node == NIL ? null : new Entry(id, scores[node], rankOf(node));
+    }
+
+    /** Up to {@code count} entries starting at 1-based {@code fromRank}, best first. */
+    public List<Entry> page(int fromRank, int count) {
+        int from = Math.max(0, fromRank - 1);
+        int to = (int) Math.min((long) from + Math.max(0, count), size());
+        List<Entry> out = new ArrayList<>(Math.max(0, to - from));
+        collect(root, from, to, 0, out);
+        return out;
+    }
+
+    public void clear() {
+        root = NIL;
+        allocated = 1;
+        free = NIL;
+        index.clear();
+    }
+
+    /**
+     * Replaces the contents with the first {@code count} (id, score) pairs, ids distinct.
+     * One primitive sort plus a linear treap build: several times faster than {@code count}
+     * calls to put, which matters for the startup scan.
+     */
+    public void load(long[] ids, int[] scores, int count) {
+        clear();
+        while (this.ids.length <= count) grow();
+        long[] keys = new long[count];
+        boolean packable = true;
+        for (int i = 0; i < count && packable; i++) {
+            packable = ids[i] > 0 && ids[i] <= 0xFFFFFFFFL;
+            // score descending in the high half, id ascending in the low half
+            keys[i] = (long) ~scores[i] << 32 | ids[i];
+        }
+        if (!packable) {
+            for (int i = 0; i < count; i++) put(ids[i], scores[i]);
+            return;
+        }
+        Arrays.sort(keys);
+
+        int[] stack = new int[Math.max(1, count)];
+        int top = 0;
+        for (int i = 0; i < count; i++) {
+            long id = keys[i] & 0xFFFFFFFFL;
+            int node = allocate(id);
+            index.put(id, node);
+            this.scores[node] = ~(int) (keys[i] >> 32);
+            right[node] = NIL;
+            // rightmost-path stack build of the Cartesian tree (in-order = sorted order)
+            int last = NIL;
+            while (top > 0 && priority(stack[top - 1]) < priority(node)) {
+                last = stack[--top];
+            }
+            left[node] = last;
+            if (top > 0) right[stack[top - 1]] = node;
+            stack[top++] = node;
+        }
+        root = top > 0 ? stack[0] : NIL;
+        computeSizes(root);
+    }
+
+    // ---- treap ----
+
+    // true when node a ranks before node b
+    private boolean before(int a, int b) {
+        return scores[a] > scores[b] || (scores[a] == scores[b] && ids[a] < ids[b]);
+    }
+
+    private int insert(int t, int node) {
+        if (t == NIL) return node;
+        if (priority(node) > priority(t)) {
+            long parts = split(t, node);
+            left[node] = (int) (parts >>> 32);
+            right[node] = (int) parts;
+            update(node);
+            return node;
+        }
+        if (before(node, t)) {
+            left[t] = insert(left[t], node);
+        } else {
+            right[t] = insert(right[t], node);
+        }
+        update(t);
+        return t;
+    }
+
+    // Splits t into (ranks before node, ranks after node), packed high/low
+    private long split(int t, int node) {
+        if (t == NIL) return 0L;
+        if (before(t, node)) {
+            long parts = split(right[t], node);
+            right[t] = (int) (parts >>> 32);
+            update(t);
+            return ((long) t << 32) | (parts & 0xFFFFFFFFL);
+        }
+        long parts = split(left[t], node);
+        left[t] = (int) parts;
+        update(t);
+        return (parts & 0xFFFFFFFF00000000L) | t;
+    }
+
+    private int erase(int t, int node) {
+        if (t == node) return merge(left[t], right[t]);
+        if (before(node, t)) {
+            left[t] = erase(left[t], node);
+        } else {
+            right[t] = erase(right[t], node);
+        }
+        update(t);
+        return t;
+    }
+
+    // Every node of a ranks before every node of b
+    private int merge(int a, int b) {
+        if (a == NIL) return b;
+        if (b == NIL) return a;
+        if (priority(a) > priority(b)) {
+            right[a] = merge(right[a], b);
+            update(a);
+            return a;
+        }
+        left[b] = merge(a, left[b]);
+        update(b);
+        return b;
+    }
+
+    private int rankOf(int node) {
+        int rank = size[left[node]] + 1;
+        int t = root;
+        while (t != node) {
+            if (before(node, t)) {
+                t = left[t];
+            } else {
+                rank += size[left[t]] + 1;
+                t = right[t];
+            }
+        }
+        return rank;
+    }
+
+    // In-order walk of the 0-based positions [from, to), skipping subtrees outside the range
+    private void collect(int t, int from, int to, int offset, List<Entry> out) {
+        if (t == NIL || offset >= to || offset + size[t] <= from) return;
+        collect(left[t], from, to, offset, out);
+        int position = offset + size[left[t]];
+        if (position >= from && position < to) {
+            out.add(new Entry(ids[t], scores[t], position + 1));
+        }
+        collect(right[t], from, to, position + 1, out);
+    }
+
+    private int computeSizes(int t) {
+        if (t == NIL) return 0;
+        size[t] = computeSizes(left[t]) + computeSizes(right[t]) + 1;
+        return size[t];
+    }
+
+    private void update(int t) {
+        size[t] = size[left[t]] + size[right[t]] + 1;
+    }
+
+    private int priority(int node) {
+        long h = ids[node] * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        return (int) h;
+    }
+
+    private int allocate(long id) {
+        int node;
+        if (free != NIL) {
+            node = free;
+            free = left[node];
+        } else {
+            if (allocated == ids.length) grow();
+            node = allocated++;
+        }
+        ids[node] = id;
+        return node;
+    }
+
+    private void grow() {
+        int capacity = ids.length + (ids.length >> 1);
+        ids = Arrays.copyOf(ids, capacity);
+        scores = Arrays.copyOf(scores, capacity);
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        size = Arrays.copyOf(size, capacity);
+    }
+}
@@ -0,0 +1,111 @@
+package com.blueforce.user.util;
+
+import java.util.UUID;
+
+/**
+ * Size-bounded set of the most recently seen UUIDs, evicting the oldest first.
+ *
+ * Ids are stored as raw (msb, lsb) long pairs in an open-addressing table with linear
+ * probing, plus a ring buffer that remembers insertion order for eviction: 50-80 bytes per
+ * id depending on table rounding, no per-entry objects, and nothing for the GC to trace
+ * (a LinkedHashMap of id Strings costs well over 100). Removal uses backward-shift deletion,
+ * so the table never fills with tombstones. The nil UUID (all zero bits) marks an empty
+ * slot and is never cached.
+ */
+public class RecentIdCache {
+
+    private final int capacity;
+    private final int mask;
+    private final long[] table;   // slot i -> table[2i] = msb, table[2i + 1] = lsb
+    private final long[] ring;    // insertion order, same layout
+    private int ringHead;         // next ring position to write (also the oldest once full)
+    private int size;
+
+    public RecentIdCache(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be positive");
+        this.capacity = capacity;
+        // load factor <= 0.5 keeps probe sequences short
+        int slots = Integer.highestOneBit(Math.max(2, capacity * 2 - 1)) << 1;
+        this.mask = slots - 1;
+        this.table = new long[slots * 2];
+        this.ring = new long[capacity * 2];
+    }
+
+    public synchronized boolean contains(UUID id) {
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        return (msb | lsb) != 0 && find(msb, lsb) >= 0;
+    }
+
+    // Returns true if the id was added, false if it was already present (or nil)
+    public synchronized boolean add(UUID id) {
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        if ((msb | lsb) == 0 || find(msb, lsb) >= 0) return false;
+
+        if (size == capacity) {
+            int oldest = find(ring[ringHead * 2], ring[ringHead * 2 + 1]);
+            if (oldest >= 0) delete(oldest);
+            size--;
+        }
+        int slot = home(msb, lsb);
+        while (!isEmpty(slot)) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot * 2] = msb;
+        table[slot * 2 + 1] = lsb;
+        ring[ringHead * 2] = msb;
+        ring[ringHead * 2 + 1] = lsb;
+        ringHead = ringHead + 1 == capacity ? 0 : ringHead + 1;
+        size++;
+        return true;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    private int find(long msb, long lsb) {
+        int slot = home(msb, lsb);
+        while (!isEmpty(slot)) {
+            if (table[slot * 2] == msb && table[slot * 2 + 1] == lsb) return slot;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    // Backward-shift deletion: pull later entries of the probe run into the hole
+    private void delete(int hole) {
+        int next = hole;
+        while (true) {
+            next = (next + 1) & mask;
+            if (isEmpty(next)) break;
+            int home = home(table[next * 2], table[next * 2 + 1]);
+            boolean staysPut = hole <= next
+                    ? hole < home && home <= next
+                    : hole < home || home <= next;
+            if (staysPut) continue;
+            table[hole * 2] = table[next * 2];
+            table[hole * 2 + 1] = table[next * 2 + 1];
+            hole = next;
+        }
+        table[hole * 2] = 0;
+        table[hole * 2 + 1] = 0;
+    }
+
+    private boolean isEmpty(int slot) {
+        return (table[slot * 2] | table[slot * 2 + 1]) == 0;
+    }
+
+    private int home(long msb, long lsb) {
+        long h = msb * 0x9E3779B97F4A7C15L ^ lsb;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+}
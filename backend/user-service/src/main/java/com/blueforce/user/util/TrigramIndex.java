@@ -0,0 +1,386 @@
+package com.blueforce.user.util;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Substring search over short texts (names), keyed by a positive id, through a trigram
+ * index: every three-character window of a normalised text points at the documents that
+ * contain it. A query intersects the posting lists of its own trigrams, smallest first,
+ * and checks each candidate against the stored text, so "een ear" finds "Green Earth"
+ * without scanning every text. Two-character queries match word starts only.
+ *
+ * Texts are normalised to lower case without accents; anything that is not a letter or
+ * digit separates words. Documents live in slots (1-based, reused after removal) held in
+ * parallel arrays, and posting lists are sorted int[] of slots, so the index costs roughly
+ * the normalised text plus 4 bytes per trigram occurrence and a few arrays per distinct
+ * trigram. Matches at a word start rank before matches inside a word. When nothing
+ * matches exactly, a query of five or more characters falls back to the documents sharing
+ * most of its trigrams, which tolerates a typo.
+ *
+ * Not thread-safe; callers guard it with a lock.
+ */
+public class TrigramIndex {
+
+    public static final int MIN_QUERY_LENGTH = 2;
+    public static final int MAX_QUERY_LENGTH = 64;
+    public static final int ANY_KIND = -1;
+
+    private static final int FUZZY_MIN_LENGTH = 5;
+    private static final String FIELD_SEPARATOR = " | ";
+    private static final int[] NO_POSTINGS = new int[0];
+
+    // documents, by slot
+    private long[] ids;
+    private byte[] kinds;
+    private String[] texts;
+    private int allocated = 1; // next never-used slot
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int size;
+    private final LongIntMap slotsById;
+
+    // posting lists, by posting number (1-based) looked up through the trigram
+    private final LongIntMap postingByTrigram;
+    private int[][] postings = new int[1024][];
+    private int[] postingSizes = new int[1024];
+    private int postingCount = 1;
+
+    public TrigramIndex(int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity + 1);
+        ids = new long[capacity];
+        kinds = new byte[capacity];
+        texts = new String[capacity];
+        slotsById = new LongIntMap(capacity);
+        postingByTrigram = new LongIntMap(4096);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Indexes the fields of a document under {@code id}, replacing what was there; null and
+     * blank fields are skipped. {@code kind} (0-127) is what searches can filter on.
+     */
+    public void put(long id, int kind, String... fields) {
+        if (id <= 0) throw new IllegalArgumentException("id must be positive");
+        if (kind < 0 || kind > Byte.MAX_VALUE) throw new IllegalArgumentException("kind must be 0-127");
+        String text = documentText(fields);
+        int slot = slotsById.get(id);
+        if (slot != 0) {
+            if (text.isEmpty()) {
+                remove(id);
+            } else if (kinds[slot] != kind || !texts[slot].equals(text)) {
+                update(slot, kind, text);
+            }
+            return;
+        }
+        if (text.isEmpty()) return;
+
+        slot = allocate();
+        ids[slot] = id;
+        kinds[slot] = (byte) kind;
+        texts[slot] = text;
+        slotsById.put(id, slot);
+        for (long trigram : trigrams(text)) {
+            insert(postingFor(trigram), slot);
+        }
+        size++;
+    }
+
+    // Same slot, new text: only the trigrams that differ move, the shared ones stay put
+    private void update(int slot, int kind, String text) {
+        long[] before = trigrams(texts[slot]);
+        long[] after = trigrams(text);
+        int b = 0;
+        int a = 0;
+        while (b < before.length || a < after.length) {
+            if (a == after.length || (b < before.length && before[b] < after[a])) {
+                delete(postingByTrigram.get(before[b++]), slot);
+            } else if (b == before.length || after[a] < before[b]) {
+                insert(postingFor(after[a++]), slot);
+            } else {
+                b++;
+                a++;
+            }
+        }
+        kinds[slot] = (byte) kind;
+        texts[slot] = text;
+    }
+
+    public boolean remove(long id) {
+        int slot = slotsById.remove(id);
+        if (slot == 0) return false;
+        for (long trigram : trigrams(texts[slot])) {
+            delete(postingByTrigram.get(trigram), slot);
+        }
+        ids[slot] = 0;
+        texts[slot] = null;
+        if (freeCount == freeSlots.length) freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        freeSlots[freeCount++] = slot;
+        size--;
+        return true;
+    }
+
+    /**
+     * Ids of up to {@code limit} documents containing the query, best first; empty for
+     * queries shorter than {@link #MIN_QUERY_LENGTH} once normalised.
+     */
+    public long[] search(String query, int kind, int limit) {
+        String q = normalize(query);
+        if (q.length() > MAX_QUERY_LENGTH) q = q.substring(0, MAX_QUERY_LENGTH);
+        if (q.length() < MIN_QUERY_LENGTH || limit <= 0) return new long[0];
+
+        // a two-character query is one trigram: a space and the query, i.e. a word start
+        boolean wordStartOnly = q.length() == 2;
+        String gramSource = wordStartOnly ? " " + q : q;
+        long[] grams = distinct(windows(gramSource));
+        int[][] lists = new int[grams.length][];
+        int[] sizes = new int[grams.length];
+        boolean allPresent = true;
+        for (int i = 0; i < grams.length; i++) {
+            int posting = postingByTrigram.get(grams[i]);
+            lists[i] = posting == 0 ? NO_POSTINGS : postings[posting];
+            sizes[i] = posting == 0 ? 0 : postingSizes[posting];
+            if (sizes[i] == 0) allPresent = false;
+        }
+
+        long[] exact = allPresent ? exact(q, wordStartOnly, lists, sizes, kind, limit) : new long[0];
+        if (exact.length > 0 || q.length() < FUZZY_MIN_LENGTH) return exact;
+        return fuzzy(lists, sizes, kind, limit);
+    }
+
+    public void clear() {
+        Arrays.fill(ids, 0L);
+        Arrays.fill(texts, null);
+        allocated = 1;
+        freeCount = 0;
+        size = 0;
+        slotsById.clear();
+        postingByTrigram.clear();
+        Arrays.fill(postings, null);
+        Arrays.fill(postingSizes, 0);
+        postingCount = 1;
+    }
+
+    /** Lower case, accents stripped, every run of other characters turned into one space. */
+    public static String normalize(String value) {
+        if (value == null || value.isEmpty()) return "";
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFKD);
+        StringBuilder out = new StringBuilder(decomposed.length());
+        boolean space = true; // drops leading separators
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) continue;
+            if (Character.isLetterOrDigit(c)) {
+                out.append(Character.toLowerCase(c));
+                space = false;
+            } else if (!space) {
+                out.append(' ');
+                space = true;
+            }
+        }
+        int length = out.length();
+        if (length > 0 && out.charAt(length - 1) == ' ') out.setLength(length - 1);
+        return out.toString().toLowerCase(Locale.ROOT);
+    }
+
+    // Walks the smallest posting list and probes the others; word-start matches fill the
+    // result first, so a common query stops after `limit` of them
+    private long[] exact(String q, boolean wordStartOnly, int[][] lists, int[] sizes, int kind, int limit) {
+        Integer[] order = bySize(sizes);
+        int[] cursors = new int[lists.length];
+        int[] smallest = lists[order[0]];
+        int smallestSize = sizes[order[0]];
+
+        long[] wordStarts = new long[limit];
+        int wordStartCount = 0;
+        long[] inner = new long[limit];
+        int innerCount = 0;
+        String wordStart = " " + q;
+
+        candidates:
+        for (int c = 0; c < smallestSize && wordStartCount < limit; c++) {
+            int slot = smallest[c];
+            if (kind != ANY_KIND && kinds[slot] != kind) continue;
+            for (int k = 1; k < order.length; k++) {
+                int list = order[k];
+                cursors[list] = seek(lists[list], cursors[list], sizes[list], slot);
+                if (cursors[list] == sizes[list]) break candidates;
+                if (lists[list][cursors[list]] != slot) continue candidates;
+            }
+            String text = texts[slot];
+            if (wordStartOnly || text.contains(wordStart)) {
+                wordStarts[wordStartCount++] = ids[slot];
+            } else if (innerCount < limit && text.contains(q)) {
+                inner[innerCount++] = ids[slot];
+            }
+        }
+
+        int take = Math.min(limit, wordStartCount + innerCount);
+        long[] result = Arrays.copyOf(wordStarts, take);
+        System.arraycopy(inner, 0, result, wordStartCount, take - wordStartCount);
+        return result;
+    }
+
+    // Documents sharing at least half of the query's trigrams (and all but three), most shared
+    // first. Such a document is in at least one of the n - needed + 1 shortest posting lists,
+    // so candidates come from merging those; the longer lists are only probed
+    private long[] fuzzy(int[][] lists, int[] sizes, int kind, int limit) {
+        int n = lists.length;
+        int needed = Math.max((n + 1) / 2, n - 3);
+        if (needed < 2) return new long[0];
+        Integer[] order = bySize(sizes);
+        int seeds = n - needed + 1;
+        int[] cursors = new int[n];
+        long[] hits = new long[64]; // (n - count) << 32 | slot, so ascending = best first
+        int hitCount = 0;
+        while (true) {
+            int slot = Integer.MAX_VALUE;
+            for (int k = 0; k < seeds; k++) {
+                int list = order[k];
+                if (cursors[list] < sizes[list]) slot = Math.min(slot, lists[list][cursors[list]]);
+            }
+            if (slot == Integer.MAX_VALUE) break;
+            int count = 0;
+            for (int k = 0; k < seeds; k++) {
+                int list = order[k];
+                if (cursors[list] < sizes[list] && lists[list][cursors[list]] == slot) {
+                    count++;
+                    cursors[list]++;
+                }
+            }
+            if (kind != ANY_KIND && kinds[slot] != kind) continue;
+            for (int k = seeds; k < n && count + n - k >= needed; k++) {
+                int list = order[k];
+                cursors[list] = seek(lists[list], cursors[list], sizes[list], slot);
+                if (cursors[list] < sizes[list] && lists[list][cursors[list]] == slot) count++;
+            }
+            if (count >= needed) {
+                if (hitCount == hits.length) hits = Arrays.copyOf(hits, hitCount * 2);
+                hits[hitCount++] = (long) (n - count) << 32 | slot;
+            }
+        }
+        Arrays.sort(hits, 0, hitCount);
+        long[] result = new long[Math.min(limit, hitCount)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ids[(int) hits[i]];
+        }
+        return result;
+    }
+
+    // Indexes of the posting lists, shortest first
+    private static Integer[] bySize(int[] sizes) {
+        Integer[] order = new Integer[sizes.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Integer.compare(sizes[a], sizes[b]));
+        return order;
+    }
+
+    // First index >= from whose slot is >= target (galloping, then binary search)
+    private static int seek(int[] list, int from, int size, int target) {
+        if (from >= size || list[from] >= target) return from;
+        int step = 1;
+        int lo = from;
+        int hi = from + 1;
+        while (hi < size && list[hi] < target) {
+            lo = hi;
+            step <<= 1;
+            hi = from + step;
+        }
+        hi = Math.min(hi, size);
+        int index = Arrays.binarySearch(list, lo + 1, hi, target);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private void insert(int posting, int slot) {
+        int[] list = postings[posting];
+        int count = postingSizes[posting];
+        int at = count == 0 || list[count - 1] < slot ? count : Arrays.binarySearch(list, 0, count, slot);
+        if (at >= 0 && at < count && list[at] == slot) return;
+        if (at < 0) at = -at - 1;
+        if (count == list.length) {
+            list = Arrays.copyOf(list, count + Math.max(4, count >> 1));
+            postings[posting] = list;
+        }
+        System.arraycopy(list, at, list, at + 1, count - at);
+        list[at] = slot;
+        postingSizes[posting] = count + 1;
+    }
+
+    private void delete(int posting, int slot) {
+        if (posting == 0) return;
+        int[] list = postings[posting];
+        int count = postingSizes[posting];
+        int at = Arrays.binarySearch(list, 0, count, slot);
+        if (at < 0) return;
+        System.arraycopy(list, at + 1, list, at, count - at - 1);
+        postingSizes[posting] = count - 1;
+    }
+
+    private int postingFor(long trigram) {
+        int posting = postingByTrigram.get(trigram);
+        if (posting == 0) {
+            posting = newPosting();
+            postingByTrigram.put(trigram, posting);
+        }
+        return posting;
+    }
+
+    private int newPosting() {
+        if (postingCount == postings.length) {
+            postings = Arrays.copyOf(postings, postingCount * 2);
+            postingSizes = Arrays.copyOf(postingSizes, postingCount * 2);
+        }
+        postings[postingCount] = new int[4];
+        return postingCount++;
+    }
+
+    private int allocate() {
+        if (freeCount > 0) return freeSlots[--freeCount];
+        if (allocated == ids.length) {
+            int capacity = ids.length + (ids.length >> 1);
+            ids = Arrays.copyOf(ids, capacity);
+            kinds = Arrays.copyOf(kinds, capacity);
+            texts = Arrays.copyOf(texts, capacity);
+        }
+        return allocated++;
+    }
+
+    // " word word | word": a leading space so every word start is " x", fields kept apart
+    private static String documentText(String... fields) {
+        StringBuilder text = new StringBuilder();
+        for (String field : fields) {
+            String normalized = normalize(field);
+            if (normalized.isEmpty()) continue;
+            text.append(text.isEmpty() ? " " : FIELD_SEPARATOR).append(normalized);
+        }
+        return text.toString();
+    }
+
+    private static long[] trigrams(String text) {
+        return distinct(windows(text));
+    }
+
+    private static long[] windows(String text) {
+        if (text.length() < 3) return new long[0];
+        long[] grams = new long[text.length() - 2];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = (long) text.charAt(i) << 32 | (long) text.charAt(i + 1) << 16 | text.charAt(i + 2);
+        }
+        return grams;
+    }
+
+    private static long[] distinct(long[] grams) {
+        if (grams.length < 2) return grams;
+        long[] sorted = grams.clone();
+        Arrays.sort(sorted);
+        int count = 1;
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] != sorted[count - 1]) sorted[count++] = sorted[i];
+        }
+        return Arrays.copyOf(sorted, count);
+    }
+}
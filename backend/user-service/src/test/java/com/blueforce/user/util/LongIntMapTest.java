@@ -0,0 +1,102 @@
+package com.blueforce.user.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongIntMapTest {
+
+    @Test
+    void putGetOverwriteAndMissingKeys() {
+        LongIntMap map = new LongIntMap(4);
+        map.put(7, 1);
+        map.put(-7, 2);
+        map.put(Long.MIN_VALUE, 3);
+        map.put(7, 4);
+
+        assertEquals(4, map.get(7));
+        assertEquals(2, map.get(-7));
+        assertEquals(3, map.get(Long.MIN_VALUE));
+        assertEquals(0, map.get(8));
+        assertEquals(0, map.remove(8));
+    }
+
+    @Test
+    void removeReturnsTheValueOnce() {
+        LongIntMap map = new LongIntMap(4);
+        map.put(42, 9);
+
+        assertEquals(9, map.remove(42));
+        assertEquals(0, map.remove(42));
+        assertEquals(0, map.get(42));
+    }
+
+    @Test
+    void removalKeepsEveryOtherKeyReachable() {
+        // dense sequential keys in a small table give long probe runs that wrap around the
+        // end, so backward-shift deletion has to move entries across the wrap
+        LongIntMap map = new LongIntMap(2);
+        Map<Long, Integer> model = new HashMap<>();
+        for (long key = 1; key <= 3000; key++) {
+            map.put(key, (int) key + 1);
+            model.put(key, (int) key + 1);
+        }
+        for (long key = 1; key <= 3000; key += 3) {
+            assertEquals(model.remove(key), map.remove(key));
+            if (key % 301 == 1) assertMatches(model, map, 3000);
+        }
+        assertMatches(model, map, 3000);
+    }
+
+    @Test
+    void randomOperationsMatchHashMap() {
+        Random random = new Random(11);
+        LongIntMap map = new LongIntMap(16);
+        Map<Long, Integer> model = new HashMap<>();
+        long[] pool = new long[2000];
+        for (int i = 0; i < pool.length; i++) {
+            long key;
+            do {
+                key = random.nextBoolean() ? random.nextLong() : random.nextInt(5000) - 2500;
+            } while (key == 0);
+            pool[i] = key;
+        }
+        for (int step = 0; step < 200_000; step++) {
+            long key = pool[random.nextInt(pool.length)];
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    int value = 1 + random.nextInt(1_000_000);
+                    map.put(key, value);
+                    model.put(key, value);
+                }
+                case 1 -> assertEquals(model.getOrDefault(key, 0), map.get(key), "get " + key);
+                default -> {
+                    Integer removed = model.remove(key);
+                    assertEquals(removed == null ? 0 : removed, map.remove(key), "remove " + key);
+                }
+            }
+        }
+        for (long key : pool) {
+            assertEquals(model.getOrDefault(key, 0), map.get(key), "get " + key);
+        }
+    }
+
+    @Test
+    void clearEmptiesAndStaysUsable() {
+        LongIntMap map = new LongIntMap(4);
+        for (long key = 1; key <= 100; key++) map.put(key, 1);
+        map.clear();
+
+        for (long key = 1; key <= 100; key++) assertEquals(0, map.get(key));
+        map.put(5, 6);
+        assertEquals(6, map.get(5));
+    }
+
+    private static void assertMatches(Map<Long, Integer> model, LongIntMap map, long maxKey) {
+        for (long key = 1; key <= maxKey; key++) {
+            assertEquals(model.getOrDefault(key, 0), map.get(key), "get " + key);
+        }
+    }
+}
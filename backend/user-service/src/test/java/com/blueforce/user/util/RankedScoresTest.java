@@ -0,0 +1,240 @@
+package com.blueforce.user.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RankedScoresTest {
+
+    // Same order as RankedScores: score descending, ties by id ascending
+    private static final Comparator<long[]> ORDER =
+            Comparator.<long[]>comparingLong(e -> -e[1]).thenComparingLong(e -> e[0]);
+
+    /** TreeSet reference model of (id, score) pairs. */
+    private static final class Model {
+        final Map<Long, Integer> scores = new HashMap<>();
+        final TreeSet<long[]> ranked = new TreeSet<>(ORDER);
+
+        void put(long id, int score) {
+            remove(id);
+            scores.put(id, score);
+            ranked.add(new long[]{id, score});
+        }
+
+        boolean remove(long id) {
+            Integer old = scores.remove(id);
+            if (old == null) return false;
+            ranked.remove(new long[]{id, old});
+            return true;
+        }
+
+        List<RankedScores.Entry> all() {
+            List<RankedScores.Entry> out = new ArrayList<>();
+            int rank = 1;
+            for (long[] e : ranked) out.add(new RankedScores.Entry(e[0], (int) e[1], rank++));
+            return out;
+        }
+    }
+
+    @Test
+    void tiesRankByIdAscending() {
+        RankedScores board = new RankedScores(16);
+        board.put(30, 5);
+        board.put(10, 5);
+        board.put(20, 7);
+        board.put(40, 5);
+
+        assertEquals(List.of(
+                new RankedScores.Entry(20, 7, 1),
+                new RankedScores.Entry(10, 5, 2),
+                new RankedScores.Entry(30, 5, 3),
+                new RankedScores.Entry(40, 5, 4)), board.page(1, 10));
+        assertEquals(new RankedScores.Entry(30, 5, 3), board.get(30));
+    }
+
+    @Test
+    void putMovesAnExistingId() {
+        RankedScores board = new RankedScores(16);
+        board.put(1, 10);
+        board.put(2, 20);
+        board.put(1, 30);
+
+        assertEquals(2, board.size());
+        assertEquals(new RankedScores.Entry(1, 30, 1), board.get(1));
+        assertEquals(new RankedScores.Entry(2, 20, 2), board.get(2));
+    }
+
+    @Test
+    void removeAndMissingIds() {
+        RankedScores board = new RankedScores(16);
+        board.put(1, 10);
+
+        assertFalse(board.remove(2));
+        assertTrue(board.remove(1));
+        assertFalse(board.remove(1));
+        assertNull(board.get(1));
+        assertEquals(0, board.size());
+        assertEquals(List.of(), board.page(1, 10));
+    }
+
+    @Test
+    void rejectsNonPositiveIds() {
+        RankedScores board = new RankedScores(16);
+        assertThrows(IllegalArgumentException.class, () -> board.put(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> board.put(-5, 1));
+    }
+
+    @Test
+    void pageClampsOutOfRangeArguments() {
+        RankedScores board = new RankedScores(16);
+        for (long id = 1; id <= 5; id++) board.put(id, (int) id);
+
+        assertEquals(5, board.page(0, 10).size());
+        assertEquals(5, board.page(-3, 10).get(0).id());
+        assertEquals(List.of(), board.page(6, 10));
+        assertEquals(List.of(), board.page(1, 0));
+        assertEquals(List.of(), board.page(1, -1));
+        assertEquals(List.of(new RankedScores.Entry(1, 1, 5)), board.page(5, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void freedNodesAreReusedForNewIds() {
+        RankedScores board = new RankedScores(16);
+        Model model = new Model();
+        for (long id = 1; id <= 40; id++) {
+            board.put(id, (int) (id % 7));
+            model.put(id, (int) (id % 7));
+        }
+        // free every other node, then fill the free list with fresh ids and re-added old ones
+        for (long id = 2; id <= 40; id += 2) {
+            assertTrue(board.remove(id));
+            model.remove(id);
+        }
+        for (long id = 100; id < 110; id++) {
+            board.put(id, (int) (id % 5));
+            model.put(id, (int) (id % 5));
+        }
+        for (long id = 2; id <= 20; id += 2) {
+            board.put(id, 3);
+            model.put(id, 3);
+        }
+
+        assertMatches(model, board);
+    }
+
+    @Test
+    void growsPastInitialCapacity() {
+        RankedScores board = new RankedScores(0);
+        Model model = new Model();
+        for (long id = 1; id <= 5000; id++) {
+            int score = (int) ((id * 31) % 1000);
+            board.put(id, score);
+            model.put(id, score);
+        }
+
+        assertMatches(model, board);
+    }
+
+    @Test
+    void randomOperationsMatchTreeSetModel() {
+        Random random = new Random(42);
+        RankedScores board = new RankedScores(8);
+        Model model = new Model();
+        for (int step = 0; step < 50_000; step++) {
+            // few ids and scores, so moves, ties, removals and re-adds are all frequent
+            long id = 1 + random.nextInt(500);
+            if (random.nextInt(4) == 0) {
+                assertEquals(model.remove(id), board.remove(id), "remove " + id);
+            } else {
+                int score = random.nextInt(50) - 10;
+                board.put(id, score);
+                model.put(id, score);
+            }
+            if (step % 1000 == 0) assertMatches(model, board);
+        }
+        assertMatches(model, board);
+
+        List<RankedScores.Entry> all = model.all();
+        for (int i = 0; i < 200; i++) {
+            int from = 1 + random.nextInt(all.size() + 5);
+            int count = random.nextInt(30);
+            List<RankedScores.Entry> expected = from > all.size()
+                    ? List.of()
+                    : all.subList(from - 1, Math.min(all.size(), from - 1 + count));
+            assertEquals(expected, board.page(from, count), "page " + from + "+" + count);
+        }
+    }
+
+    @Test
+    void loadMatchesPuttingEveryPair() {
+        Random random = new Random(7);
+        int count = 3000;
+        long[] ids = new long[count + 10]; // trailing slots past count are ignored
+        int[] scores = new int[count + 10];
+        Model model = new Model();
+        List<Long> shuffled = new ArrayList<>();
+        for (long id = 1; id <= count; id++) shuffled.add(id * 3);
+        Collections.shuffle(shuffled, random);
+        for (int i = 0; i < count; i++) {
+            ids[i] = shuffled.get(i);
+            scores[i] = random.nextInt(200) - 100;
+            model.put(ids[i], scores[i]);
+        }
+        ids[count] = 1;
+
+        RankedScores board = new RankedScores(4);
+        board.put(999_999, 1); // replaced by the load
+        board.load(ids, scores, count);
+        assertMatches(model, board);
+
+        // still a valid treap afterwards
+        for (int i = 0; i < 500; i++) {
+            long id = ids[random.nextInt(count)];
+            if (random.nextBoolean()) {
+                board.remove(id);
+                model.remove(id);
+            } else {
+                int score = random.nextInt(200) - 100;
+                board.put(id, score);
+                model.put(id, score);
+            }
+        }
+        assertMatches(model, board);
+    }
+
+    @Test
+    void loadFallsBackForIdsPastThirtyTwoBits() {
+        long[] ids = {5, 1L << 40, 7, (1L << 33) + 1};
+        int[] scores = {1, 9, 9, 1};
+        Model model = new Model();
+        for (int i = 0; i < ids.length; i++) model.put(ids[i], scores[i]);
+
+        RankedScores board = new RankedScores(16);
+        board.load(ids, scores, ids.length);
+
+        assertMatches(model, board);
+    }
+
+    @Test
+    void loadOfNothingEmptiesTheBoard() {
+        RankedScores board = new RankedScores(16);
+        board.put(1, 1);
+        board.load(new long[0], new int[0], 0);
+
+        assertEquals(0, board.size());
+        assertNull(board.get(1));
+        board.put(2, 2);
+        assertEquals(new RankedScores.Entry(2, 2, 1), board.get(2));
+    }
+
+    private static void assertMatches(Model model, RankedScores board) {
+        List<RankedScores.Entry> all = model.all();
+        assertEquals(all.size(), board.size());
+        assertEquals(all, board.page(1, all.size() + 1));
+        for (RankedScores.Entry entry : all) {
+            assertEquals(entry, board.get(entry.id()));
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.blueforce.user.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrigramIndexTest {
+
+    private static final int PARTICIPANT = 0;
+    private static final int NGO = 1;
+
+    @Test
+    void normalizeLowersStripsAccentsAndCollapsesSeparators() {
+        assertEquals("elise marie o brien", TrigramIndex.normalize("  Élise-Marie O'Brien!! "));
+        assertEquals("strasse 12", TrigramIndex.normalize("STRASSE\t12"));
+        assertEquals("", TrigramIndex.normalize("  --  "));
+        assertEquals("", TrigramIndex.normalize(null));
+    }
+
+    @Test
+    void findsSubstringsAcrossWords() {
+        TrigramIndex index = new TrigramIndex(16);
+        index.put(1, NGO, "Green Earth", "Ana Ruiz", null);
+        index.put(2, PARTICIPANT, "Greta Green");
+
+        assertArrayEquals(new long[]{1}, index.search("een ear", TrigramIndex.ANY_KIND, 10));
+        assertArrayEquals(new long[]{1}, index.search("ana ruiz", TrigramIndex.ANY_KIND, 10));
+        assertEquals(Set.of(1L, 2L), ids(index.search("GRÉEN", TrigramIndex.ANY_KIND, 10)));
+    }
+
+    @Test
+    void wordStartsRankBeforeInnerMatches() {
+        TrigramIndex index = new TrigramIndex(16);
+        index.put(1, PARTICIPANT, "Maria Delmar"); // "mar" at a word start (and inside one)
+        index.put(2, PARTICIPANT, "Delmar Smith"); // only inside a word
+        index.put(3, PARTICIPANT, "Omar Marquez"); // at a word start (and inside one)
+
+        long[] hits = index.search("mar", TrigramIndex.ANY_KIND, 10);
+        assertEquals(Set.of(1L, 3L), ids(Arrays.copyOfRange(hits, 0, 2)));
+        assertEquals(2L, hits[2]);
+        assertEquals(Set.of(1L, 3L), ids(index.search("mar", TrigramIndex.ANY_KIND, 2)));
+    }
+
+    @Test
+    void twoCharacterQueriesMatchWordStartsOnly() {
+        TrigramIndex index = new TrigramIndex(16);
+        index.put(1, PARTICIPANT, "Green Earth");
+        index.put(2, PARTICIPANT, "Bear Reed");
+
+        assertArrayEquals(new long[]{1}, index.search("ea", TrigramIndex.ANY_KIND, 10));
+        assertArrayEquals(new long[]{2}, index.search("re", TrigramIndex.ANY_KIND, 10));
+        assertArrayEquals(new long[0], index.search("ee", TrigramIndex.ANY_KIND, 10));
+        assertArrayEquals(new long[0], index.search("e", TrigramIndex.ANY_KIND, 10));
+        assertArrayEquals(new long[0], index.search("--", TrigramIndex.ANY_KIND, 10));
+    }
+
+    @Test
+    void kindFilterAppliesToExactAndFuzzyMatches() {
+        TrigramIndex index = new TrigramIndex(16);
+        index.put(1, PARTICIPANT, "Ocean Watch");
+        index.put(2, NGO, "Ocean Watch", "Lee Park");
+
+        assertArrayEquals(new long[]{2}, index.search("ocean", NGO, 10));
+        assertArrayEquals(new long[]{1}, index.search("ocean", PARTICIPANT, 10));
+        assertArrayEquals(new long[]{2}, index.search("lee park", NGO, 10));
+        assertArrayEquals(new long[0], index.search("lee park", PARTICIPANT, 10));
+        assertArrayEquals(new long[]{2}, index.search("ocean wetch", NGO, 10));
+        assertArrayEquals(new long[]{1}, index.search("ocean wetch", PARTICIPANT, 10));
+    }
+
+    @Test
+    void typoFallsBackToNearMatchesForLongerQueries() {
+        TrigramIndex index = new TrigramIndex(16);
+        index.put(1, NGO, "Green Earth Collective");
+        index.put(2, NGO, "Blue Ocean Trust");
+
+        // one wrong letter costs at most three of the query's trigrams
+        assertArrayEquals(new long[]{1}, index.search("green eatth", TrigramIndex.ANY_KIND, 10));
+        assertArrayEquals(new long[]{2}, index.search("ocean trvst", TrigramIndex.ANY_KIND, 10));
+        // too short to fall back
+        assertArrayEquals(new long[0], index.search("gren", TrigramIndex.ANY_KIND, 10));
+    }
+
+    @Test
+    void updateMovesOnlyTheChangedTrigrams() {
+        TrigramIndex index = new TrigramIndex(16);
+        index.put(1, PARTICIPANT, "Green Earth");
+        index.put(1, PARTICIPANT, "Green Ocean");
+
+        assertEquals(1, index.size());
+        assertArrayEquals(new long[]{1}, index.search("green oc", TrigramIndex.ANY_KIND, 10));
+        assertArrayEquals(new long[0], index.search("earth", TrigramIndex.ANY_KIND, 10));
+
+        index.put(1, NGO, "Green Ocean");
+        assertArrayEquals(new long[0], index.search("green", PARTICIPANT, 10));
+        assertArrayEquals(new long[]{1}, index.search("green", NGO, 10));
+    }
+
+    @Test
+    void removedSlotsAreReusedWithoutLeakingOldText() {
+        TrigramIndex index = new TrigramIndex(16);
+        index.put(1, PARTICIPANT, "Alice Walker");
+        index.put(2, PARTICIPANT, "Bob Stone");
+        assertTrue(index.remove(1));
+        assertFalse(index.remove(1));
+        index.put(3, PARTICIPANT, "Carla Reyes"); // takes slot 1 back
+
+        assertEquals(2, index.size());
+        assertArrayEquals(new long[0], index.search("alice", TrigramIndex.ANY_KIND, 10));
+        assertArrayEquals(new long[]{3}, index.search("carla", TrigramIndex.ANY_KIND, 10));
+
+        index.put(2, PARTICIPANT, " ", null); // nothing left to index: dropped
+        assertEquals(1, index.size());
+        assertArrayEquals(new long[0], index.search("bob", TrigramIndex.ANY_KIND, 10));
+    }
+
+    @Test
+    void rejectsInvalidIdsAndKinds() {
+        TrigramIndex index = new TrigramIndex(16);
+        assertThrows(IllegalArgumentException.class, () -> index.put(0, PARTICIPANT, "x"));
+        assertThrows(IllegalArgumentException.class, () -> index.put(1, -1, "x"));
+        assertThrows(IllegalArgumentException.class, () -> index.put(1, 128, "x"));
+        assertArrayEquals(new long[0], index.search("anything", TrigramIndex.ANY_KIND, 0));
+    }
+
+    @Test
+    void intersectsLongPostingListsWithSparseOnes() {
+        // "common" lists hold every document, "rare" ones every 97th: the walk gallops far ahead
+        TrigramIndex index = new TrigramIndex(16);
+        Model model = new Model();
+        for (long id = 1; id <= 5000; id++) {
+            String name = "Common Name " + (id % 97 == 0 ? "Rare " : "") + id;
+            index.put(id, PARTICIPANT, name);
+            model.put(id, PARTICIPANT, name);
+        }
+
+        assertEquals(new HashSet<>(model.matches("common name rare", TrigramIndex.ANY_KIND)),
+                ids(index.search("common name rare", TrigramIndex.ANY_KIND, 10_000)));
+        assertEquals(51, index.search("name rare", TrigramIndex.ANY_KIND, 10_000).length);
+        assertArrayEquals(new long[]{4947}, index.search("rare 4947", TrigramIndex.ANY_KIND, 10));
+    }
+
+    @Test
+    void randomEditsAndSearchesMatchBruteForce() {
+        Random random = new Random(2024);
+        TrigramIndex index = new TrigramIndex(8);
+        Model model = new Model();
+        for (int step = 0; step < 6000; step++) {
+            long id = 1 + random.nextInt(400);
+            int op = random.nextInt(20);
+            if (op < 4) {
+                assertEquals(model.texts.containsKey(id), index.remove(id), "remove " + id);
+                model.remove(id);
+            } else if (op == 4) {
+                index.put(id, PARTICIPANT, "  ", null);
+                model.put(id, PARTICIPANT, "  ", null);
+            } else {
+                int kind = random.nextInt(2);
+                String[] fields = kind == NGO
+                        ? new String[]{name(random), random.nextBoolean() ? name(random) : null, name(random)}
+                        : new String[]{name(random)};
+                index.put(id, kind, fields);
+                model.put(id, kind, fields);
+            }
+            if (step % 100 == 99) {
+                assertEquals(model.texts.size(), index.size());
+                for (int i = 0; i < 40; i++) checkQuery(index, model, query(random, model));
+            }
+        }
+    }
+
+    private static void checkQuery(TrigramIndex index, Model model, String query) {
+        for (int kind : new int[]{TrigramIndex.ANY_KIND, PARTICIPANT, NGO}) {
+            for (int limit : new int[]{1, 3, 1000}) {
+                String where = "\"" + query + "\" kind " + kind + " limit " + limit;
+                long[] hits = index.search(query, kind, limit);
+                List<Long> wordStarts = model.wordStartMatches(query, kind);
+                List<Long> all = model.matches(query, kind);
+                if (!all.isEmpty()) {
+                    assertEquals(Math.min(limit, all.size()), hits.length, where);
+                    // word starts first; all of them when they fit
+                    int starts = Math.min(limit, wordStarts.size());
+                    for (int i = 0; i < hits.length; i++) {
+                        assertEquals(i < starts, wordStarts.contains(hits[i]), where + " hit " + i);
+                        assertTrue(all.contains(hits[i]), where + " hit " + i);
+                    }
+                    assertEquals(hits.length, ids(hits).size(), where);
+                } else {
+                    checkFuzzy(hits, model, TrigramIndex.normalize(query), kind, limit, where);
+                }
+            }
+        }
+    }
+
+    private static void checkFuzzy(long[] hits, Model model, String q, int kind, int limit, String where) {
+        if (q.length() > TrigramIndex.MAX_QUERY_LENGTH) q = q.substring(0, TrigramIndex.MAX_QUERY_LENGTH);
+        Set<String> grams = windows(q);
+        int n = grams.size();
+        int needed = Math.max((n + 1) / 2, n - 3);
+        if (q.length() < 5 || needed < 2) {
+            assertArrayEquals(new long[0], hits, where);
+            return;
+        }
+        Map<Long, Integer> shared = new HashMap<>();
+        model.texts.forEach((id, text) -> {
+            if (kind != TrigramIndex.ANY_KIND && model.kinds.get(id) != kind) return;
+            Set<String> common = windows(text);
+            common.retainAll(grams);
+            if (common.size() >= needed) shared.put(id, common.size());
+        });
+        assertEquals(Math.min(limit, shared.size()), hits.length, where);
+        int previous = Integer.MAX_VALUE;
+        for (long hit : hits) {
+            Integer count = shared.get(hit);
+            assertNotNull(count, where + " unexpected " + hit);
+            assertTrue(count <= previous, where + " not most shared first");
+            previous = count;
+        }
+        if (hits.length > 0) {
+            int last = previous;
+            Set<Long> returned = ids(hits);
+            shared.forEach((id, count) -> {
+                if (!returned.contains(id)) assertTrue(count <= last, where + " missed " + id);
+            });
+        }
+    }
+
+    // Substrings of indexed texts (word starts, inner, across words and fields), two-character
+    // queries, one-character typos and the odd miss
+    private static String query(Random random, Model model) {
+        List<String> texts = new ArrayList<>(model.texts.values());
+        if (texts.isEmpty() || random.nextInt(10) == 0) return name(random);
+        String text = texts.get(random.nextInt(texts.size()));
+        int length = Math.min(text.length(), 2 + random.nextInt(9));
+        int from = random.nextInt(text.length() - length + 1);
+        StringBuilder query = new StringBuilder(text.substring(from, from + length));
+        if (random.nextInt(4) == 0 && query.length() >= 5) {
+            query.setCharAt(random.nextInt(query.length()), (char) ('a' + random.nextInt(26)));
+        }
+        return random.nextBoolean() ? query.toString().toUpperCase(Locale.ROOT) : query.toString();
+    }
+
+    private static final String[] SYLLABLES = {"an", "el", "ri", "ma", "ré", "on", "ka", "ber", "tho", "ü", "sa", "gre", "en"};
+
+    private static String name(Random random) {
+        StringBuilder name = new StringBuilder();
+        int words = 1 + random.nextInt(3);
+        for (int w = 0; w < words; w++) {
+            if (w > 0) name.append(random.nextInt(5) == 0 ? "-" : " ");
+            int syllables = 1 + random.nextInt(3);
+            for (int s = 0; s < syllables; s++) name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return random.nextBoolean() ? name.toString() : name.substring(0, 1).toUpperCase(Locale.ROOT) + name.substring(1);
+    }
+
+    private static Set<String> windows(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) grams.add(text.substring(i, i + 3));
+        return grams;
+    }
+
+    private static Set<Long> ids(long[] hits) {
+        Set<Long> ids = new HashSet<>();
+        for (long hit : hits) ids.add(hit);
+        return ids;
+    }
+
+    /** Documents as the index stores them: " field | field", each field normalised. */
+    private static final class Model {
+        final Map<Long, String> texts = new HashMap<>();
+        final Map<Long, Integer> kinds = new HashMap<>();
+
+        void put(long id, int kind, String... fields) {
+            StringBuilder text = new StringBuilder();
+            for (String field : fields) {
+                String normalized = TrigramIndex.normalize(field);
+                if (!normalized.isEmpty()) text.append(text.isEmpty() ? " " : " | ").append(normalized);
+            }
+            if (text.isEmpty()) {
+                remove(id);
+            } else {
+                texts.put(id, text.toString());
+                kinds.put(id, kind);
+            }
+        }
+
+        void remove(long id) {
+            texts.remove(id);
+            kinds.remove(id);
+        }
+
+        List<Long> wordStartMatches(String query, int kind) {
+            String q = normalized(query);
+            return q.length() < TrigramIndex.MIN_QUERY_LENGTH ? List.of() : scan(" " + q, kind);
+        }
+
+        // the brute-force answer: every text containing the query (its word starts for two characters)
+        List<Long> matches(String query, int kind) {
+            String q = normalized(query);
+            if (q.length() < TrigramIndex.MIN_QUERY_LENGTH) return List.of();
+            return scan(q.length() == 2 ? " " + q : q, kind);
+        }
+
+        private List<Long> scan(String needle, int kind) {
+            List<Long> out = new ArrayList<>();
+            texts.forEach((id, text) -> {
+                if ((kind == TrigramIndex.ANY_KIND || kinds.get(id) == kind) && text.contains(needle)) out.add(id);
+            });
+            return out;
+        }
+
+        private static String normalized(String query) {
+            String q = TrigramIndex.normalize(query);
+            return q.length() > TrigramIndex.MAX_QUERY_LENGTH ? q.substring(0, TrigramIndex.MAX_QUERY_LENGTH) : q;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.blueforce.waste;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@SpringBootApplication
+@EnableScheduling
+public class WasteServiceApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(WasteServiceApplication.class, args);
+	}
+
+}
@@ -0,0 +1,70 @@
+package com.blueforce.waste.controller;
+
+import com.blueforce.waste.dto.WasteLogDto;
+import com.blueforce.waste.entity.WasteImage;
+import com.blueforce.waste.service.ImageStore;
+import com.blueforce.waste.service.WasteLogService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/api/waste")
+public class WasteController {
+
+    private static final int MAX_LIMIT = 100;
+
+    @Autowired
+    private WasteLogService wasteLogService;
+
+    @Autowired
+    private ImageStore imageStore;
+
+    // ✅ Log waste: same multipart fields as the old logWaste.js mock (wasteType, weight, image);
+    // points are capped per day, the response carries what was actually awarded
+    @PreAuthorize("hasRole('PARTICIPANT')")
+    @PostMapping(value = "/logs", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<WasteLogDto> logWaste(@RequestParam String wasteType,
+                                                @RequestParam BigDecimal weight,
+                                                @RequestParam(required = false) MultipartFile image) throws IOException {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        return ResponseEntity.status(HttpStatus.CREATED).body(wasteLogService.log(email, wasteType, weight, image));
+    }
+
+    // ✅ My logs, newest first (next page: beforeId = last id returned)
+    @GetMapping("/logs/me")
+    public ResponseEntity<List<WasteLogDto>> myLogs(@RequestParam(defaultValue = "" + Long.MAX_VALUE) long beforeId,
+                                                    @RequestParam(defaultValue = "20") int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        return ResponseEntity.ok(wasteLogService.myLogs(email, beforeId, limit));
+    }
+
+    // ✅ Photo by hash: the bytes behind a hash never change, so clients may cache it for good
+    @GetMapping("/images/{sha256}")
+    public ResponseEntity<Resource> image(@PathVariable String sha256) {
+        FileSystemResource file = new FileSystemResource(imageStore.open(sha256));
+        WasteImage image = wasteLogService.image(sha256);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(image.getContentType()))
+                .contentLength(image.getSizeBytes())
+                .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable())
+                .eTag(sha256)
+                .body(file);
+    }
+}
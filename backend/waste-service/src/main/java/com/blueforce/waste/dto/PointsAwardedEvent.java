@@ -0,0 +1,19 @@
+package com.blueforce.waste.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Same JSON shape as user-service's PointsAwardedEvent, which consumes it
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PointsAwardedEvent {
+    private String eventId;   // UUID, fixed when the event is written to the outbox
+    private String email;     // the participant who logged the waste
+    private int points;
+    private String reason;    // WASTE_LOG
+    private long awardedAt;   // epoch millis
+}
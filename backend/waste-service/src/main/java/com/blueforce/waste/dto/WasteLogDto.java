@@ -0,0 +1,23 @@
+package com.blueforce.waste.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WasteLogDto {
+    private Long id;
+    private String wasteType;
+    private BigDecimal weight;     // kg
+    private String image;          // sha256 of the photo, fetch it from /api/waste/images/{image}
+    private boolean duplicateImage; // the same photo was already stored
+    private int points;
+    private LocalDateTime createdAt;
+}
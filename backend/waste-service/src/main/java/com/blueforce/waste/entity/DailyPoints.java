@@ -0,0 +1,38 @@
+package com.blueforce.waste.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Points a participant has been awarded for waste logs on one day, checked against
+ * waste.points.daily-cap. The row is locked while a log is awarded, so concurrent logs by
+ * the same user cannot both spend the same allowance.
+ */
+@Entity
+@Table(name = "waste_daily_points")
+@IdClass(DailyPoints.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailyPoints {
+
+    @Id
+    private String email;
+
+    @Id
+    private LocalDate awardDate;
+
+    private int points;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String email;
+        private LocalDate awardDate;
+    }
+}
@@ -0,0 +1,34 @@
+package com.blueforce.waste.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row per distinct photo. The file itself lives in the image store under its hash,
+ * so logs that attach the same bytes share the row and the file.
+ */
+@Entity
+@Table(name = "waste_images")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WasteImage {
+
+    @Id
+    @Column(length = 64)
+    private String sha256;
+
+    @Column(nullable = false)
+    private long sizeBytes;
+
+    @Column(nullable = false)
+    private String contentType;
+
+    private int referenceCount; // waste logs pointing at this image
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,39 @@
+package com.blueforce.waste.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "waste_logs", indexes = {
+        @Index(name = "idx_waste_logs_email", columnList = "email, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WasteLog {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String email; // token subject of the participant
+
+    @Column(nullable = false, length = 50)
+    private String wasteType;
+
+    @Column(nullable = false, precision = 10, scale = 3)
+    private BigDecimal weight; // kg
+
+    @Column(length = 64)
+    private String imageSha256; // null when no photo was attached
+
+    private int points;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,33 @@
+package com.blueforce.waste.repository;
+
+import com.blueforce.waste.entity.DailyPoints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+
+public interface DailyPointsRepository extends JpaRepository<DailyPoints, DailyPoints.Key> {
+
+    // Creates the day's row if needed; like addReference, racing first logs meet on the primary key
+    @Modifying
+    @Query(value = """
+           INSERT INTO waste_daily_points (email, award_date, points)
+           VALUES (:email, :awardDate, 0)
+           ON DUPLICATE KEY UPDATE points = points
+           """, nativeQuery = true)
+    int ensureRow(@Param("email") String email, @Param("awardDate") LocalDate awardDate);
+
+    // Locking read: sees the latest committed total and holds the row until the log commits
+    @Query(value = """
+           SELECT points FROM waste_daily_points
+           WHERE email = :email AND award_date = :awardDate
+           FOR UPDATE
+           """, nativeQuery = true)
+    int lockPoints(@Param("email") String email, @Param("awardDate") LocalDate awardDate);
+
+    @Modifying
+    @Query("UPDATE DailyPoints d SET d.points = d.points + :points WHERE d.email = :email AND d.awardDate = :awardDate")
+    int addPoints(@Param("email") String email, @Param("awardDate") LocalDate awardDate, @Param("points") int points);
+}
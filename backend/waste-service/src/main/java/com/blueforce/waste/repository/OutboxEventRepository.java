@@ -0,0 +1,51 @@
+package com.blueforce.waste.repository;
+
+import com.blueforce.waste.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // SKIP LOCKED lets several relay instances claim batches without blocking each other;
+    // rows leased to another relay stay out until their lease runs out, parked rows for good
+    @Query(value = """
+           SELECT * FROM waste_outbox
+           WHERE sent_at IS NULL AND failed_at IS NULL
+             AND (claimed_until IS NULL OR claimed_until < :now)
+           ORDER BY id
+           LIMIT :limit
+           FOR UPDATE SKIP LOCKED
+           """, nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.claimedUntil = :until WHERE e.id IN :ids")
+    int claim(@Param("ids") Collection<Long> ids, @Param("until") LocalDateTime until);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.claimedUntil = NULL WHERE e.id IN :ids")
+    int release(@Param("ids") Collection<Long> ids);
+
+    // Releases the row and counts the failure; the one that reaches maxAttempts parks it
+    @Modifying
+    @Query("""
+           UPDATE OutboxEvent e SET e.claimedUntil = NULL, e.attempts = e.attempts + 1,
+               e.failedAt = CASE WHEN e.attempts + 1 >= :maxAttempts THEN :now ELSE NULL END
+           WHERE e.id = :id
+           """)
+    int recordFailure(@Param("id") long id, @Param("maxAttempts") int maxAttempts, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.sentAt = :sentAt WHERE e.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @Query(value = "DELETE FROM waste_outbox WHERE sent_at < :cutoff LIMIT :limit", nativeQuery = true)
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+}
@@ -0,0 +1,25 @@
+package com.blueforce.waste.repository;
+
+import com.blueforce.waste.entity.WasteImage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface WasteImageRepository extends JpaRepository<WasteImage, String> {
+
+    // One statement for new and already-stored photos; concurrent uploads of the same bytes
+    // serialise on the primary key instead of racing a SELECT-then-INSERT
+    @Modifying
+    @Query(value = """
+           INSERT INTO waste_images (sha256, size_bytes, content_type, reference_count, created_at)
+           VALUES (:sha256, :sizeBytes, :contentType, 1, :createdAt)
+           ON DUPLICATE KEY UPDATE reference_count = reference_count + 1
+           """, nativeQuery = true)
+    int addReference(@Param("sha256") String sha256,
+                     @Param("sizeBytes") long sizeBytes,
+                     @Param("contentType") String contentType,
+                     @Param("createdAt") LocalDateTime createdAt);
+}
@@ -0,0 +1,13 @@
+package com.blueforce.waste.repository;
+
+import com.blueforce.waste.entity.WasteLog;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface WasteLogRepository extends JpaRepository<WasteLog, Long> {
+
+    // newest first, keyset on (email, id): each page starts below the last id seen
+    List<WasteLog> findByEmailAndIdLessThanOrderByIdDesc(String email, long beforeId, Limit limit);
+}
@@ -0,0 +1,149 @@
+package com.blueforce.waste.service;
+
+import com.blueforce.waste.util.ImageSignature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed photo store on the local filesystem: {@code <dir>/ab/cd/<sha256>}.
+ *
+ * An upload is copied from its channel into a temp file through one pooled direct buffer,
+ * hashing each chunk on the way, so the heap never holds the photo. The temp file is then
+ * renamed to its hash, or dropped if that file already exists: identical photos are stored
+ * once however many logs attach them.
+ */
+@Component
+public class ImageStore {
+
+    public record StoredImage(String sha256, long size, String contentType, boolean duplicate) {}
+
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-f]{64}");
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final Path root;
+    private final Path incoming;
+    private final int bufferBytes;
+    private final BlockingQueue<ByteBuffer> buffers;
+
+    public ImageStore(@Value("${waste.images.dir:./waste-images}") String dir,
+                      @Value("${waste.images.buffer-bytes:65536}") int bufferBytes,
+                      @Value("${waste.images.buffer-pool-size:64}") int bufferPoolSize) throws IOException {
+        this.root = Path.of(dir).toAbsolutePath().normalize();
+        // same filesystem as the final paths, so the rename below never copies
+        this.incoming = Files.createDirectories(root.resolve("incoming"));
+        this.bufferBytes = Math.max(bufferBytes, ImageSignature.LENGTH);
+        this.buffers = new ArrayBlockingQueue<>(Math.max(1, bufferPoolSize));
+    }
+
+    /**
+     * Streams {@code source} into the store and returns its hash. Rejects anything that is
+     * not a supported image (400) or is larger than {@code maxBytes} (413); the caller
+     * closes {@code source}.
+     */
+    public StoredImage store(ReadableByteChannel source, long maxBytes) throws IOException {
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = acquire();
+        Path temp = Files.createTempFile(incoming, "upload-", ".tmp");
+        try {
+            String contentType;
+            long size = 0;
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                boolean eof = fill(source, buffer, ImageSignature.LENGTH);
+                contentType = ImageSignature.detect(buffer);
+                if (contentType == null) {
+                    throw new IllegalArgumentException("image must be a JPEG, PNG, GIF, WebP or HEIC file");
+                }
+                while (true) {
+                    if (!eof) eof = fill(source, buffer, buffer.capacity());
+                    buffer.flip();
+                    size += buffer.remaining();
+                    if (size > maxBytes) {
+                        throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                                "image is larger than " + maxBytes + " bytes");
+                    }
+                    int start = buffer.position();
+                    digest.update(buffer);
+                    buffer.position(start);
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                    buffer.clear();
+                    if (eof) break;
+                }
+            }
+
+            String sha256 = HEX.formatHex(digest.digest());
+            Path target = pathFor(sha256);
+            if (Files.exists(target)) {
+                return new StoredImage(sha256, size, contentType, true);
+            }
+            Files.createDirectories(target.getParent());
+            try {
+                // a concurrent upload of the same bytes may win the rename; either copy is the same file
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                return new StoredImage(sha256, size, contentType, true);
+            }
+            return new StoredImage(sha256, size, contentType, false);
+        } finally {
+            Files.deleteIfExists(temp);
+            release(buffer);
+        }
+    }
+
+    /** Where the photo with this hash lives; 404 for anything that is not a stored hash. */
+    public Path open(String sha256) {
+        if (sha256 == null || !SHA256_HEX.matcher(sha256).matches()) {
+            throw new RuntimeException("Image not found");
+        }
+        Path path = pathFor(sha256);
+        if (!Files.isRegularFile(path)) {
+            throw new RuntimeException("Image not found");
+        }
+        return path;
+    }
+
+    private Path pathFor(String sha256) {
+        return root.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    // Reads until the buffer holds at least min bytes; true once the source is exhausted
+    private static boolean fill(ReadableByteChannel source, ByteBuffer buffer, int min) throws IOException {
+        while (buffer.position() < min) {
+            if (source.read(buffer) < 0) return true;
+        }
+        return false;
+    }
+
+    private ByteBuffer acquire() {
+        ByteBuffer buffer = buffers.poll();
+        return buffer != null ? buffer : ByteBuffer.allocateDirect(bufferBytes);
+    }
+
+    private void release(ByteBuffer buffer) {
+        buffer.clear();
+        buffers.offer(buffer); // dropped when the pool is full
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
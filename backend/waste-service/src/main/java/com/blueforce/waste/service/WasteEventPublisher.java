@@ -0,0 +1,59 @@
+package com.blueforce.waste.service;
+
+import com.blueforce.waste.dto.PointsAwardedEvent;
+import com.blueforce.waste.entity.OutboxEvent;
+import com.blueforce.waste.entity.WasteLog;
+import com.blueforce.waste.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+
+/**
+ * Records PointsAwardedEvents in the outbox. Must run inside the transaction that inserts
+ * the WasteLog, so the log and its points commit (or roll back) together; OutboxRelay does
+ * the actual Kafka send.
+ */
+@Component
+public class WasteEventPublisher {
+
+    public static final String POINTS_AWARDED_TOPIC = "points-awarded";
+    public static final String WASTE_LOG_REASON = "WASTE_LOG";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public WasteEventPublisher(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishPointsAwarded(WasteLog wasteLog) {
+        if (wasteLog.getPoints() == 0) return;
+        PointsAwardedEvent event = PointsAwardedEvent.builder()
+                // generated once here, so relay retries and redeliveries all carry the same id
+                .eventId(UUID.randomUUID().toString())
+                .email(wasteLog.getEmail())
+                .points(wasteLog.getPoints())
+                .reason(WASTE_LOG_REASON)
+                .awardedAt(wasteLog.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
+                .build();
+        try {
+            outboxEventRepository.save(OutboxEvent.builder()
+                    .topic(POINTS_AWARDED_TOPIC)
+                    // keyed by email like user-registered: a user's awards stay on one partition
+                    .eventKey(wasteLog.getEmail())
+                    .payload(objectMapper.writeValueAsString(event))
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize points award event", e);
+        }
+    }
+}
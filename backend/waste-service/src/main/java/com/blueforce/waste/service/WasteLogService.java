@@ -0,0 +1,173 @@
+package com.blueforce.waste.service;
+
+import com.blueforce.waste.dto.WasteLogDto;
+import com.blueforce.waste.entity.WasteImage;
+import com.blueforce.waste.entity.WasteLog;
+import com.blueforce.waste.repository.DailyPointsRepository;
+import com.blueforce.waste.repository.WasteImageRepository;
+import com.blueforce.waste.repository.WasteLogRepository;
+import com.blueforce.waste.service.ImageStore.StoredImage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Waste logs: the photo goes to the {@link ImageStore} first, then the log, the image
+ * reference and the points event commit in one transaction. A photo whose transaction
+ * rolls back stays on disk unreferenced; it is content-addressed, so a retry reuses it.
+ *
+ * Weights are self-reported, so points are capped per participant per day
+ * (waste.points.daily-cap): once the day's allowance is spent, further logs are still
+ * recorded but earn nothing.
+ */
+@Service
+public class WasteLogService {
+
+    private static final int MAX_WASTE_TYPE_LENGTH = 50;
+
+    private final WasteLogRepository wasteLogRepository;
+    private final WasteImageRepository wasteImageRepository;
+    private final DailyPointsRepository dailyPointsRepository;
+    private final WasteEventPublisher wasteEventPublisher;
+    private final ImageStore imageStore;
+    private final TransactionTemplate transactionTemplate;
+    private final long maxImageBytes;
+    private final BigDecimal maxWeight;
+    private final BigDecimal pointsPerKg;
+    private final int minPoints;
+    private final int dailyCap;
+
+    private final Timer storeTimer;
+    private final DistributionSummary uploadBytes;
+    private final Counter duplicateImages;
+
+    public WasteLogService(WasteLogRepository wasteLogRepository,
+                           WasteImageRepository wasteImageRepository,
+                           DailyPointsRepository dailyPointsRepository,
+                           WasteEventPublisher wasteEventPublisher,
+                           ImageStore imageStore,
+                           TransactionTemplate transactionTemplate,
+                           MeterRegistry meterRegistry,
+                           @Value("${waste.images.max-bytes:10485760}") long maxImageBytes,
+                           @Value("${waste.log.max-weight-kg:25}") BigDecimal maxWeight,
+                           @Value("${waste.points.per-kg:2}") BigDecimal pointsPerKg,
+                           @Value("${waste.points.min:1}") int minPoints,
+                           @Value("${waste.points.daily-cap:50}") int dailyCap) {
+        this.wasteLogRepository = wasteLogRepository;
+        this.wasteImageRepository = wasteImageRepository;
+        this.dailyPointsRepository = dailyPointsRepository;
+        this.wasteEventPublisher = wasteEventPublisher;
+        this.imageStore = imageStore;
+        this.transactionTemplate = transactionTemplate;
+        this.maxImageBytes = maxImageBytes;
+        this.maxWeight = maxWeight;
+        this.pointsPerKg = pointsPerKg;
+        this.minPoints = minPoints;
+        this.dailyCap = dailyCap;
+
+        this.storeTimer = Timer.builder("waste.image.store")
+                .description("Time to stream, hash and store one photo")
+                .register(meterRegistry);
+        this.uploadBytes = DistributionSummary.builder("waste.image.size")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.duplicateImages = Counter.builder("waste.image.duplicates")
+                .description("Uploads whose bytes were already stored")
+                .register(meterRegistry);
+    }
+
+    public WasteLogDto log(String email, String wasteType, BigDecimal weight, MultipartFile image) throws IOException {
+        String type = wasteType == null ? "" : wasteType.trim();
+        if (type.isEmpty() || type.length() > MAX_WASTE_TYPE_LENGTH) {
+            throw new IllegalArgumentException("wasteType is required (at most " + MAX_WASTE_TYPE_LENGTH + " characters)");
+        }
+        if (weight == null || weight.signum() <= 0 || weight.compareTo(maxWeight) > 0) {
+            throw new IllegalArgumentException("weight must be greater than 0 and at most " + maxWeight + " kg");
+        }
+
+        StoredImage stored = image == null || image.isEmpty() ? null : store(image);
+
+        WasteLog saved = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (stored != null) {
+                wasteImageRepository.addReference(stored.sha256(), stored.size(), stored.contentType(), now);
+            }
+            WasteLog wasteLog = wasteLogRepository.save(WasteLog.builder()
+                    .email(email)
+                    .wasteType(type)
+                    .weight(weight.setScale(3, RoundingMode.HALF_UP))
+                    .imageSha256(stored == null ? null : stored.sha256())
+                    .points(award(email, now.toLocalDate(), pointsFor(weight)))
+                    .createdAt(now)
+                    .build());
+            wasteEventPublisher.publishPointsAwarded(wasteLog);
+            return wasteLog;
+        });
+        return toDto(saved, stored != null && stored.duplicate());
+    }
+
+    public List<WasteLogDto> myLogs(String email, long beforeId, int limit) {
+        return wasteLogRepository.findByEmailAndIdLessThanOrderByIdDesc(email, beforeId, Limit.of(limit)).stream()
+                .map(wasteLog -> toDto(wasteLog, false))
+                .toList();
+    }
+
+    public WasteImage image(String sha256) {
+        return wasteImageRepository.findById(sha256)
+                .orElseThrow(() -> new RuntimeException("Image not found"));
+    }
+
+    private StoredImage store(MultipartFile image) throws IOException {
+        // Tomcat has already spooled the part to disk (file-size-threshold=0); this streams it on
+        long start = System.nanoTime();
+        StoredImage stored;
+        try (ReadableByteChannel channel = Channels.newChannel(image.getInputStream())) {
+            stored = imageStore.store(channel, maxImageBytes);
+        }
+        storeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        uploadBytes.record(stored.size());
+        if (stored.duplicate()) duplicateImages.increment();
+        return stored;
+    }
+
+    // What is left of the day's allowance, up to points; runs in the log's transaction
+    private int award(String email, LocalDate day, int points) {
+        dailyPointsRepository.ensureRow(email, day);
+        int awarded = Math.min(points, Math.max(0, dailyCap - dailyPointsRepository.lockPoints(email, day)));
+        if (awarded > 0) dailyPointsRepository.addPoints(email, day, awarded);
+        return awarded;
+    }
+
+    private int pointsFor(BigDecimal weight) {
+        int points = weight.multiply(pointsPerKg).setScale(0, RoundingMode.DOWN).intValueExact();
+        return Math.max(minPoints, points);
+    }
+
+    private static WasteLogDto toDto(WasteLog wasteLog, boolean duplicateImage) {
+        return WasteLogDto.builder()
+                .id(wasteLog.getId())
+                .wasteType(wasteLog.getWasteType())
+                .weight(wasteLog.getWeight())
+                .image(wasteLog.getImageSha256())
+                .duplicateImage(duplicateImage)
+                .points(wasteLog.getPoints())
+                .createdAt(wasteLog.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,53 @@
+package com.blueforce.waste.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Content type of a photo from its first bytes. The upload's own Content-Type header is
+ * whatever the client says, so only these signatures are accepted.
+ */
+public final class ImageSignature {
+
+    /** Bytes that must be buffered before {@link #detect} can decide. */
+    public static final int LENGTH = 12;
+
+    private ImageSignature() {
+    }
+
+    /** Looks at {@code buffer[0, position)} without moving it; null if not a supported image. */
+    public static String detect(ByteBuffer buffer) {
+        int length = buffer.position();
+        if (length >= 3 && u(buffer, 0) == 0xFF && u(buffer, 1) == 0xD8 && u(buffer, 2) == 0xFF) {
+            return "image/jpeg";
+        }
+        if (length >= 8 && u(buffer, 0) == 0x89 && ascii(buffer, 1, "PNG") && u(buffer, 4) == 0x0D
+                && u(buffer, 5) == 0x0A && u(buffer, 6) == 0x1A && u(buffer, 7) == 0x0A) {
+            return "image/png";
+        }
+        if (length >= 6 && (ascii(buffer, 0, "GIF87a") || ascii(buffer, 0, "GIF89a"))) {
+            return "image/gif";
+        }
+        if (length >= 12 && ascii(buffer, 0, "RIFF") && ascii(buffer, 8, "WEBP")) {
+            return "image/webp";
+        }
+        // ISO BMFF: size, "ftyp", major brand
+        if (length >= 12 && ascii(buffer, 4, "ftyp")
+                && (ascii(buffer, 8, "heic") || ascii(buffer, 8, "heix") || ascii(buffer, 8, "mif1"))) {
+            return "image/heic";
+        }
+        return null;
+    }
+
+    private static int u(ByteBuffer buffer, int index) {
+        return buffer.get(index) & 0xFF;
+    }
+
+    private static boolean ascii(ByteBuffer buffer, int offset, String expected) {
+        byte[] bytes = expected.getBytes(StandardCharsets.US_ASCII);
+        for (int i = 0; i < bytes.length; i++) {
+            if (buffer.get(offset + i) != bytes[i]) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,13 @@
+package com.blueforce.waste;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class WasteServiceApplicationTests {
+
+	@Test
+	void contextLoads() {
+	}
+
+}